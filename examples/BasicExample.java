@@ -33,6 +33,11 @@ public class BasicExample {
         long parallelTime = measureParallelProcessing(data);
         System.out.println("Parallel processing time: " + parallelTime + "ms\n");
 
+        // ✅ APRÈS (sans boxing) : Traitement parallèle sur tableau primitif
+        System.out.println("--- Parallel Primitive Processing (AFTER, no boxing) ---");
+        long primitiveTime = measurePrimitiveProcessing(data.size());
+        System.out.println("Parallel primitive processing time: " + primitiveTime + "ms\n");
+
         // Calcul du gain
         double improvement = ((double) (sequentialTime - parallelTime) / sequentialTime) * 100;
         System.out.println("=== Results ===");
@@ -76,13 +81,15 @@ public class BasicExample {
         BatchProfiler profiler = new BatchProfiler();
         profiler.start();
 
-        ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+        List<Integer> results;
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
                 .parallelism(8)  // 8 threads
                 .chunkSize(1000) // 1000 items par chunk
                 .strategy(PartitionStrategy.DYNAMIC)
-                .build();
+                .build()) {
 
-        List<Integer> results = processor.process(data, BasicExample::processItem);
+            results = processor.process(data, BasicExample::processItem);
+        }
 
         PerformanceMetrics metrics = profiler.stop();
 
@@ -93,10 +100,37 @@ public class BasicExample {
         return metrics.getTotalTimeMs();
     }
 
+    /**
+     * Traitement parallèle sur tableau primitif (APRÈS, sans boxing).
+     */
+    private static long measurePrimitiveProcessing(int size)
+            throws ExecutionException, InterruptedException {
+
+        int[] data = new int[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = i;
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        int[] results;
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(8)
+                .chunkSize(1000)
+                .build()) {
+
+            results = processor.processInts(data, BasicExample::processItem);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        System.out.println("Processed " + results.length + " items");
+        return duration;
+    }
+
     /**
      * Simule le traitement d'un item (avec calcul CPU-intensif).
      */
-    private static Integer processItem(Integer item) {
+    private static int processItem(int item) {
         // Simulation d'un traitement complexe
         int result = item;
         for (int i = 0; i < 100; i++) {
@@ -0,0 +1,362 @@
+package com.imadattar.batch.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Enregistrement CSV lu sans copie : les champs sont des positions dans le buffer de la
+ * ligne, et ne sont convertis qu'à la demande.
+ *
+ * <p>Les accesseurs numériques ({@link #getLong(int)}, {@link #getDouble(int)}...) lisent
+ * directement les octets, sans {@code String} intermédiaire ; {@link #get(int)} retourne
+ * une vue {@link CharSequence} sur les octets pour un champ ASCII.</p>
+ *
+ * <p>Une instance est réutilisée d'une ligne à l'autre par {@link CsvReader} : elle ne doit
+ * pas être conservée au-delà du mapper. Les valeurs extraites (nombres, chaînes, vues)
+ * restent valides.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public final class CsvRecord {
+
+    /**
+     * Nombre de chiffres significatifs convertis exactement par le chemin rapide de
+     * {@link #getDouble(int)} (mantisse inférieure à 2^53).
+     */
+    private static final int MAX_FAST_DOUBLE_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final byte delimiter;
+
+    private final byte quote;
+
+    private ByteBuffer buffer;
+
+    private int count;
+
+    private int[] starts = new int[16];
+
+    private int[] ends = new int[16];
+
+    /**
+     * Champs entre guillemets contenant des guillemets doublés, à déséchapper.
+     */
+    private boolean[] escaped = new boolean[16];
+
+    public CsvRecord(char delimiter, char quote) {
+        this.delimiter = (byte) delimiter;
+        this.quote = (byte) quote;
+    }
+
+    /**
+     * Analyse la ligne comprise entre la position et la limite du buffer.
+     *
+     * @return cette instance
+     */
+    public CsvRecord reset(ByteBuffer line) {
+        this.buffer = line;
+        this.count = 0;
+        int limit = line.limit();
+        int i = line.position();
+        while (true) {
+            int start;
+            int end;
+            boolean hasEscapes = false;
+            if (i < limit && line.get(i) == quote) {
+                start = ++i;
+                while (true) {
+                    while (i < limit && line.get(i) != quote) {
+                        i++;
+                    }
+                    if (i + 1 < limit && line.get(i + 1) == quote) {
+                        hasEscapes = true;
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                end = Math.min(i, limit);
+                while (i < limit && line.get(i) != delimiter) {
+                    i++;
+                }
+            } else {
+                start = i;
+                while (i < limit && line.get(i) != delimiter) {
+                    i++;
+                }
+                end = i;
+            }
+            add(start, end, hasEscapes);
+            if (i >= limit) {
+                return this;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Nombre de champs.
+     */
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty(int field) {
+        checkIndex(field);
+        return starts[field] == ends[field];
+    }
+
+    /**
+     * Valeur du champ : vue sur les octets si le champ est en ASCII, sinon chaîne décodée
+     * en UTF-8. Une vue se compare par contenu à une autre vue (pas à une {@link String}) ;
+     * pour une valeur conservée au-delà du tampon, utiliser {@link #getString(int)}.
+     */
+    public CharSequence get(int field) {
+        checkIndex(field);
+        int start = starts[field];
+        int end = ends[field];
+        if (escaped[field]) {
+            return unescape(start, end);
+        }
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) < 0) {
+                return decode(start, end);
+            }
+        }
+        return new AsciiView(buffer, start, end);
+    }
+
+    /**
+     * Valeur du champ, décodée en UTF-8.
+     */
+    public String getString(int field) {
+        checkIndex(field);
+        return escaped[field] ? unescape(starts[field], ends[field]) : decode(starts[field], ends[field]);
+    }
+
+    /**
+     * Valeur entière du champ, lue directement depuis les octets.
+     *
+     * @throws NumberFormatException si le champ n'est pas un entier valide
+     */
+    public long getLong(int field) {
+        checkIndex(field);
+        int i = starts[field];
+        int end = ends[field];
+        boolean negative = i < end && buffer.get(i) == '-';
+        if (negative || (i < end && buffer.get(i) == '+')) {
+            i++;
+        }
+        if (i == end) {
+            throw invalidNumber(field);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalidNumber(field);
+            }
+            // Accumulation en négatif : couvre Long.MIN_VALUE
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw invalidNumber(field);
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw invalidNumber(field);
+            }
+            return -value;
+        }
+        return value;
+    }
+
+    /**
+     * @throws NumberFormatException si le champ n'est pas un entier valide ou dépasse un {@code int}
+     */
+    public int getInt(int field) {
+        long value = getLong(field);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw invalidNumber(field);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Valeur décimale du champ. Les décimaux simples ({@code -123.45}) sont lus
+     * directement depuis les octets ; les autres formats (exposant, nombreux chiffres)
+     * passent par {@link Double#parseDouble(String)}.
+     *
+     * @throws NumberFormatException si le champ n'est pas un nombre valide
+     */
+    public double getDouble(int field) {
+        checkIndex(field);
+        int i = starts[field];
+        int end = ends[field];
+        boolean negative = i < end && buffer.get(i) == '-';
+        if (negative || (i < end && buffer.get(i) == '+')) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b >= '0' && b <= '9' && digits < MAX_FAST_DOUBLE_DIGITS) {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else {
+                return Double.parseDouble(getString(field));
+            }
+        }
+        if (digits == 0) {
+            throw invalidNumber(field);
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append((char) delimiter);
+            }
+            sb.append(getString(i));
+        }
+        return sb.toString();
+    }
+
+    private void add(int start, int end, boolean hasEscapes) {
+        if (count == starts.length) {
+            int capacity = count * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            escaped = Arrays.copyOf(escaped, capacity);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        escaped[count] = hasEscapes;
+        count++;
+    }
+
+    private void checkIndex(int field) {
+        if (field < 0 || field >= count) {
+            throw new IndexOutOfBoundsException("Field " + field + " out of " + count + " fields");
+        }
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Décode un champ en réduisant chaque guillemet doublé à un seul. Le guillemet est un
+     * caractère ASCII : son octet ne peut pas apparaître dans un caractère UTF-8 multi-octets.
+     */
+    private String unescape(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            bytes[length++] = b;
+            if (b == quote && i + 1 < end && buffer.get(i + 1) == quote) {
+                i++;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private NumberFormatException invalidNumber(int field) {
+        return new NumberFormatException("Invalid number in field " + field + ": \"" + getString(field) + "\"");
+    }
+
+    /**
+     * Vue sur un champ ASCII : aucun octet n'est copié.
+     *
+     * <p>Égalité et hachage portent sur les caractères du champ (hachage identique à celui
+     * de {@link String}), lus par index absolu : ils ne dépendent ni de la position ni de
+     * la limite du tampon partagé, que l'analyse déplace. Deux vues d'un même texte peuvent
+     * ainsi servir de clé de {@code Map}.</p>
+     */
+    private static final class AsciiView implements CharSequence {
+
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        private AsciiView(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) buffer.get(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (from < 0 || to > length() || from > to) {
+                throw new IndexOutOfBoundsException("[" + from + ", " + to + ") out of " + length());
+            }
+            return new AsciiView(buffer, start + from, start + to);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof AsciiView view) || view.length() != length()) {
+                return false;
+            }
+            for (int i = 0; i < length(); i++) {
+                if (buffer.get(start + i) != view.buffer.get(view.start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length()];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
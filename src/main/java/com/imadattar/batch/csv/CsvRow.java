@@ -0,0 +1,195 @@
+package com.imadattar.batch.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tampon d'encodage de lignes CSV, directement en octets UTF-8.
+ *
+ * <p>Les champs sont ajoutés un à un ; le délimiteur est inséré automatiquement et les
+ * champs contenant le délimiteur, un guillemet ou un saut de ligne sont mis entre
+ * guillemets. Les entiers sont écrits chiffre par chiffre, sans {@code String}
+ * intermédiaire. Le tampon s'agrandit à la demande et est réutilisé après
+ * {@link #clear()}.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public final class CsvRow {
+
+    private static final byte[] LONG_MIN_VALUE = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private final byte delimiter;
+
+    private final byte quote;
+
+    private byte[] bytes;
+
+    private int length;
+
+    private boolean rowStart = true;
+
+    CsvRow(char delimiter, char quote, int initialCapacity) {
+        this.delimiter = (byte) delimiter;
+        this.quote = (byte) quote;
+        this.bytes = new byte[Math.max(64, initialCapacity)];
+    }
+
+    /**
+     * Ajoute un champ texte ; {@code null} est écrit comme un champ vide.
+     */
+    public CsvRow field(CharSequence value) {
+        separator();
+        if (value == null) {
+            return this;
+        }
+        int n = value.length();
+        boolean ascii = true;
+        boolean quoted = false;
+        for (int i = 0; i < n; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                ascii = false;
+            } else if (c == delimiter || c == quote || c == '\n' || c == '\r') {
+                quoted = true;
+            }
+        }
+        if (!ascii) {
+            return appendEncoded(value.toString().getBytes(StandardCharsets.UTF_8), quoted);
+        }
+        ensureCapacity(quoted ? 2 * n + 2 : n);
+        if (quoted) {
+            bytes[length++] = quote;
+        }
+        for (int i = 0; i < n; i++) {
+            byte b = (byte) value.charAt(i);
+            if (quoted && b == quote) {
+                bytes[length++] = quote;
+            }
+            bytes[length++] = b;
+        }
+        if (quoted) {
+            bytes[length++] = quote;
+        }
+        return this;
+    }
+
+    /**
+     * Ajoute un champ entier.
+     */
+    public CsvRow field(long value) {
+        separator();
+        if (value == Long.MIN_VALUE) {
+            ensureCapacity(LONG_MIN_VALUE.length);
+            System.arraycopy(LONG_MIN_VALUE, 0, bytes, length, LONG_MIN_VALUE.length);
+            length += LONG_MIN_VALUE.length;
+            return this;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            bytes[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        int end = length + digits;
+        for (int i = end - 1; i >= length; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length = end;
+        return this;
+    }
+
+    public CsvRow field(int value) {
+        return field((long) value);
+    }
+
+    /**
+     * Ajoute un champ décimal, au format de {@link Double#toString(double)}.
+     */
+    public CsvRow field(double value) {
+        if (value == (long) value && Math.abs(value) < 1e7 && !isNegativeZero(value)) {
+            // Entier exact : chemin sans String, même rendu que Double.toString ("42.0")
+            field((long) value);
+            ensureCapacity(2);
+            bytes[length++] = '.';
+            bytes[length++] = '0';
+            return this;
+        }
+        separator();
+        return appendEncoded(Double.toString(value).getBytes(StandardCharsets.US_ASCII), false);
+    }
+
+    /**
+     * Termine la ligne courante.
+     */
+    public CsvRow endRow() {
+        ensureCapacity(1);
+        bytes[length++] = '\n';
+        rowStart = true;
+        return this;
+    }
+
+    /**
+     * Nombre d'octets encodés.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Vide le tampon en conservant sa capacité.
+     */
+    public void clear() {
+        length = 0;
+        rowStart = true;
+    }
+
+    /**
+     * Vue sur les octets encodés, sans copie.
+     */
+    ByteBuffer buffer() {
+        return ByteBuffer.wrap(bytes, 0, length);
+    }
+
+    private static boolean isNegativeZero(double value) {
+        return Double.doubleToRawLongBits(value) == Long.MIN_VALUE;
+    }
+
+    private void separator() {
+        if (rowStart) {
+            rowStart = false;
+        } else {
+            ensureCapacity(1);
+            bytes[length++] = delimiter;
+        }
+    }
+
+    private CsvRow appendEncoded(byte[] encoded, boolean quoted) {
+        ensureCapacity(quoted ? 2 * encoded.length + 2 : encoded.length);
+        if (!quoted) {
+            System.arraycopy(encoded, 0, bytes, length, encoded.length);
+            length += encoded.length;
+            return this;
+        }
+        bytes[length++] = quote;
+        for (byte b : encoded) {
+            if (b == quote) {
+                bytes[length++] = quote;
+            }
+            bytes[length++] = b;
+        }
+        bytes[length++] = quote;
+        return this;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+}
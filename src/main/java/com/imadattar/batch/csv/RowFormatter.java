@@ -0,0 +1,25 @@
+package com.imadattar.batch.csv;
+
+/**
+ * Écriture d'un objet sous forme de ligne CSV.
+ *
+ * <pre>{@code
+ * RowFormatter<Transaction> formatter = (tx, row) -> row
+ *         .field(tx.getId())
+ *         .field(tx.getLabel())
+ *         .field(tx.getAmount());
+ * }</pre>
+ *
+ * @param <R> Type des objets écrits
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface RowFormatter<R> {
+
+    /**
+     * Ajoute les champs de {@code value} à la ligne courante ; la fin de ligne est
+     * ajoutée par le {@link CsvWriter}.
+     */
+    void format(R value, CsvRow row);
+}
@@ -0,0 +1,15 @@
+package com.imadattar.batch.io;
+
+/**
+ * Plage d'octets {@code [from, to)} d'un fichier, commençant et finissant sur une frontière
+ * d'enregistrement.
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public record ByteRange(long from, long to) {
+
+    public long size() {
+        return to - from;
+    }
+}
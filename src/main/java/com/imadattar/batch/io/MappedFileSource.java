@@ -0,0 +1,285 @@
+package com.imadattar.batch.io;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Source de données lisant un fichier d'enregistrements (lignes CSV, fichier à largeur fixe)
+ * par projection mémoire ({@link FileChannel#map}).
+ *
+ * <p>Au lieu de charger le fichier dans une {@code List<String>}, il est découpé en plages
+ * d'octets alignées sur les frontières d'enregistrement ; chaque plage est projetée en
+ * mémoire et analysée par un worker, sans copie : le parser reçoit un {@link ByteBuffer}
+ * positionné sur les octets de l'enregistrement, directement dans le cache de pages du
+ * système. Seuls les résultats du parser sont alloués.</p>
+ *
+ * <h2>Exemple d'utilisation</h2>
+ * <pre>{@code
+ * try (MappedFileSource file = MappedFileSource.lines(Path.of("transactions.csv"))) {
+ *     List<Transaction> transactions = processor.processFile(file, Transaction::parse);
+ * }
+ * }</pre>
+ *
+ * <p>Les lignes sont délimitées par {@code \n} ; un {@code \r} final est exclu de
+ * l'enregistrement, et les lignes vides sont ignorées. Un champ CSV entre guillemets
+ * contenant un saut de ligne n'est pas supporté.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Slf4j
+public final class MappedFileSource implements AutoCloseable {
+
+    /**
+     * Taille maximale d'une plage : une projection est limitée à {@code Integer.MAX_VALUE} octets.
+     */
+    static final long MAX_RANGE_BYTES = Integer.MAX_VALUE;
+
+    /**
+     * Taille du tampon utilisé pour chercher une fin de ligne lors du découpage.
+     */
+    private static final int SCAN_BUFFER_BYTES = 8 * 1024;
+
+    private static final byte LINE_FEED = '\n';
+
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    /**
+     * Longueur fixe d'un enregistrement, ou 0 pour des lignes.
+     */
+    private final int recordLength;
+
+    /**
+     * Début des données, après les lignes d'en-tête.
+     */
+    private final long dataStart;
+
+    private MappedFileSource(Path path, int recordLength, int headerLines) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.recordLength = recordLength;
+        long start = 0;
+        try {
+            for (int i = 0; i < headerLines && start < size; i++) {
+                start = nextLineStart(start + 1);
+            }
+        } catch (UncheckedIOException e) {
+            channel.close();
+            throw e.getCause();
+        }
+        this.dataStart = start;
+    }
+
+    /**
+     * Fichier de lignes (CSV, fichier à largeur fixe terminé par des sauts de ligne...).
+     *
+     * @throws IOException si le fichier ne peut pas être ouvert
+     */
+    public static MappedFileSource lines(Path path) throws IOException {
+        return new MappedFileSource(path, 0, 0);
+    }
+
+    /**
+     * Fichier de lignes dont les {@code headerLines} premières lignes (en-tête CSV) sont
+     * exclues des plages.
+     *
+     * @throws IOException si le fichier ne peut pas être ouvert ou lu
+     */
+    public static MappedFileSource lines(Path path, int headerLines) throws IOException {
+        if (headerLines < 0) {
+            throw new IllegalArgumentException("headerLines must be >= 0: " + headerLines);
+        }
+        return new MappedFileSource(path, 0, headerLines);
+    }
+
+    /**
+     * Fichier d'enregistrements de longueur fixe, sans séparateur.
+     *
+     * @param recordLength Longueur d'un enregistrement, en octets
+     * @throws IOException si le fichier ne peut pas être ouvert
+     */
+    public static MappedFileSource fixedLength(Path path, int recordLength) throws IOException {
+        if (recordLength < 1) {
+            throw new IllegalArgumentException("recordLength must be >= 1: " + recordLength);
+        }
+        return new MappedFileSource(path, recordLength, 0);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Taille du fichier, en octets, à l'ouverture.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Découpe le fichier (hors en-tête) en au moins {@code partitions} plages de tailles proches, alignées
+     * sur les enregistrements (davantage si le fichier dépasse la taille maximale d'une
+     * projection).
+     *
+     * @param partitions Nombre de plages visé
+     * @return Plages contiguës couvrant tout le fichier, dans l'ordre du fichier
+     * @throws UncheckedIOException si le fichier ne peut pas être lu
+     */
+    public List<ByteRange> split(int partitions) {
+        long dataSize = size - dataStart;
+        if (dataSize <= 0) {
+            return List.of();
+        }
+        // Marge de moitié : une plage de lignes déborde de sa cible jusqu'à la fin de ligne
+        long halfMax = MAX_RANGE_BYTES / 2;
+        long count = Math.max(partitions, (dataSize + halfMax - 1) / halfMax);
+        long target = Math.max(1, dataSize / count);
+        if (recordLength > 0) {
+            target = Math.max(recordLength, target / recordLength * recordLength);
+        }
+
+        List<ByteRange> ranges = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE));
+        long from = dataStart;
+        while (from < size) {
+            long to;
+            if (from + target >= size) {
+                to = size;
+            } else {
+                to = recordLength > 0 ? from + target : nextLineStart(from + target);
+            }
+            if (to - from > MAX_RANGE_BYTES) {
+                throw new IllegalStateException("Record larger than " + MAX_RANGE_BYTES + " bytes at offset " + from);
+            }
+            ranges.add(new ByteRange(from, to));
+            from = to;
+        }
+        log.debug("Split {} ({} bytes) into {} ranges", path, size, ranges.size());
+        return ranges;
+    }
+
+    /**
+     * Analyse les enregistrements d'une plage, dans l'ordre du fichier.
+     *
+     * <p>Le {@link ByteBuffer} transmis au parser est réutilisé d'un enregistrement à
+     * l'autre : sa position et sa limite délimitent l'enregistrement courant. Il est en
+     * lecture seule et ne doit pas être conservé au-delà de l'appel.</p>
+     *
+     * @param range Plage issue de {@link #split(int)}
+     * @param parser Analyse d'un enregistrement
+     * @param <R> Type des résultats
+     * @return Un résultat par enregistrement
+     * @throws UncheckedIOException si la plage ne peut pas être projetée
+     */
+    public <R> List<R> parse(ByteRange range, Function<? super ByteBuffer, ? extends R> parser) {
+        ByteBuffer buffer = map(range).asReadOnlyBuffer();
+        int limit = buffer.capacity();
+        List<R> results = new ArrayList<>(recordLength > 0 ? limit / recordLength : 16);
+
+        int start = 0;
+        while (start < limit) {
+            int end;
+            int next;
+            if (recordLength > 0) {
+                end = Math.min(start + recordLength, limit);
+                next = end;
+            } else {
+                end = indexOf(buffer, LINE_FEED, start, limit);
+                next = end + 1;
+                if (end > start && buffer.get(end - 1) == CARRIAGE_RETURN) {
+                    end--;
+                }
+                if (end == start) {
+                    start = next;
+                    continue;
+                }
+            }
+            buffer.limit(end).position(start);
+            results.add(parser.apply(buffer));
+            buffer.limit(limit);
+            start = next;
+        }
+        return results;
+    }
+
+    /**
+     * Décode un enregistrement en UTF-8, sans modifier la position du buffer.
+     * Pratique, mais alloue une chaîne : les parsers critiques liront plutôt les octets.
+     */
+    public static String asString(ByteBuffer record) {
+        return StandardCharsets.UTF_8.decode(record.duplicate()).toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer map(ByteRange range) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, range.from(), range.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map " + path + " " + range, e);
+        }
+    }
+
+    /**
+     * Début de la première ligne commençant à {@code offset} ou après.
+     */
+    private long nextLineStart(long offset) {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long position = offset - 1;
+        try {
+            while (position < size) {
+                scan.clear();
+                int read = channel.read(scan, position);
+                if (read <= 0) {
+                    break;
+                }
+                int index = indexOf(scan, LINE_FEED, 0, read);
+                if (index < read) {
+                    return position + index + 1;
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + path, e);
+        }
+        return size;
+    }
+
+    /**
+     * Index du premier octet {@code value} dans {@code [from, to)}, ou {@code to}.
+     */
+    private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedFileSource{path=" + path + ", size=" + size
+                + (recordLength > 0 ? ", recordLength=" + recordLength : ", lines") + "}";
+    }
+}
@@ -0,0 +1,49 @@
+package com.imadattar.batch.jdbc;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Métriques d'une écriture par {@link JdbcBatchWriter}.
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Getter
+@Builder
+public class JdbcWriteMetrics {
+
+    /**
+     * Lignes écrites et validées.
+     */
+    private final long rowsWritten;
+
+    /**
+     * Nombre d'appels à {@code executeBatch}.
+     */
+    private final long batches;
+
+    /**
+     * Nombre de commits.
+     */
+    private final long commits;
+
+    /**
+     * Nombre de connexions utilisées (une par voie).
+     */
+    private final int connections;
+
+    private final long totalTimeMs;
+
+    /**
+     * Lignes écrites par seconde.
+     */
+    private final double rowsPerSecond;
+
+    @Override
+    public String toString() {
+        return String.format(
+                "JdbcWriteMetrics{rows=%d, batches=%d, commits=%d, connections=%d, totalTime=%dms, throughput=%.2f rows/s}",
+                rowsWritten, batches, commits, connections, totalTimeMs, rowsPerSecond);
+    }
+}
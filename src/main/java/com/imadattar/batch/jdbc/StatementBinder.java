@@ -0,0 +1,29 @@
+package com.imadattar.batch.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Affectation des paramètres d'une requête préparée à partir d'un objet.
+ *
+ * <pre>{@code
+ * StatementBinder<Transaction> binder = (ps, tx) -> {
+ *     ps.setLong(1, tx.getId());
+ *     ps.setString(2, tx.getAccount());
+ *     ps.setBigDecimal(3, tx.getAmount());
+ * };
+ * }</pre>
+ *
+ * @param <T> Type des objets écrits
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface StatementBinder<T> {
+
+    /**
+     * Affecte les paramètres de {@code statement} ; l'ajout au lot
+     * ({@link PreparedStatement#addBatch()}) est fait par le {@link JdbcBatchWriter}.
+     */
+    void bind(PreparedStatement statement, T item) throws SQLException;
+}
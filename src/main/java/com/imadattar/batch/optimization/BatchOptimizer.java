@@ -0,0 +1,314 @@
+package com.imadattar.batch.optimization;
+
+import com.imadattar.batch.profiling.BatchProfiler;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Traitement par chunks sous budget mémoire.
+ *
+ * <p>Plutôt que de deviner un {@code chunkSize} qui tienne en mémoire, on fixe un budget
+ * ({@code maxMemoryMB}) : avant d'admettre chaque chunk, l'occupation du heap après GC est
+ * mesurée ({@link HeapOccupancy}), sans compter les objets morts pas encore collectés.
+ * À l'approche du budget, la taille des chunks et le nombre
+ * de chunks traités simultanément diminuent, et l'admission attend la fin d'un chunk en
+ * cours ; lorsque le heap redescend, ils remontent progressivement. Les chunks sont tirés
+ * de la source à la demande : elle n'est jamais matérialisée.</p>
+ *
+ * <h2>Exemple d'utilisation</h2>
+ * <pre>{@code
+ * try (BatchOptimizer optimizer = BatchOptimizer.builder()
+ *         .maxMemoryMB(512)
+ *         .enableGarbageCollection(true)
+ *         .streamingMode(true)
+ *         .build()) {
+ *
+ *     optimizer.processInChunks(hugeDataset, chunk -> writer.writeAll(transform(chunk)));
+ * }
+ * }</pre>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Slf4j
+@Builder
+public class BatchOptimizer implements AutoCloseable {
+
+    /**
+     * Intervalle minimum entre deux GC explicites.
+     */
+    private static final long MIN_GC_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Budget de heap, en Mo. Par défaut (0) : 75% du heap maximum de la JVM.
+     * Plafonné au heap maximum.
+     */
+    @Builder.Default
+    private final long maxMemoryMB = 0;
+
+    /**
+     * Demande un GC lorsque le heap dépasse le seuil haut, au plus une fois par seconde,
+     * pour distinguer la mémoire réellement retenue des objets morts non encore collectés.
+     * À réserver aux batchs dont le heap est dominé par des objets à courte durée de vie.
+     */
+    @Builder.Default
+    private final boolean enableGarbageCollection = false;
+
+    /**
+     * Mode streaming : le résultat de chaque chunk est abandonné dès son calcul, et
+     * {@code processInChunks} retourne une liste vide. Pour les traitements qui écrivent
+     * eux-mêmes leurs résultats (fichier, base...).
+     */
+    @Builder.Default
+    private final boolean streamingMode = false;
+
+    /**
+     * Nombre maximum de chunks traités simultanément.
+     * Par défaut : nombre de cœurs CPU disponibles.
+     */
+    @Builder.Default
+    private final int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Taille des premiers chunks, ajustée ensuite selon le heap.
+     */
+    @Builder.Default
+    private final int initialChunkSize = 1000;
+
+    @Builder.Default
+    private final int minChunkSize = 16;
+
+    @Builder.Default
+    private final int maxChunkSize = 100_000;
+
+    /**
+     * Délai accordé aux chunks en cours pour se terminer lors de {@link #close()}, avant
+     * l'arrêt forcé du pool interne.
+     */
+    @Builder.Default
+    private final Duration shutdownTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Mesure du heap occupé, en octets. Par défaut : occupation des pools tenured, qui ne
+     * compte pas les objets à courte durée de vie ({@link HeapOccupancy}).
+     * Remplaçable pour surveiller un autre indicateur (ou en test).
+     */
+    private final LongSupplier heapUsage;
+
+    /**
+     * Profileur alimenté par l'optimiseur (optionnel) : items traités et tailles de chunks
+     * retenues.
+     */
+    private final BatchProfiler profiler;
+
+    /**
+     * Pool interne, créé au premier appel et réutilisé jusqu'à {@link #close()}.
+     */
+    private final AtomicReference<ExecutorService> ownedExecutor = new AtomicReference<>();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Traite une source par chunks, sous le budget mémoire.
+     *
+     * @param source Source des éléments, consommée à la demande par le thread appelant
+     * @param chunkProcessor Traitement d'un chunk (doit être thread-safe)
+     * @param <T> Type des éléments
+     * @param <R> Type du résultat d'un chunk
+     * @return Résultat de chaque chunk, dans l'ordre de la source ; liste vide en {@code streamingMode}
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si le traitement d'un chunk échoue
+     * @throws IllegalStateException si l'optimiseur a été fermé
+     */
+    public <T, R> List<R> processInChunks(Iterator<? extends T> source, Function<? super List<T>, ? extends R> chunkProcessor)
+            throws InterruptedException, ExecutionException {
+
+        HeapThrottle throttle = new HeapThrottle(budgetBytes(), initialChunkSize, minChunkSize, maxChunkSize, parallelism);
+        LongSupplier heap = heapUsage != null ? heapUsage : new HeapOccupancy();
+        log.info("Starting memory-budgeted processing: budget={} MB, parallelism={}, initialChunkSize={}",
+                throttle.budgetBytes() / (1024 * 1024), parallelism, initialChunkSize);
+
+        long startTime = System.currentTimeMillis();
+        CompletionService<IndexedResult<R>> completion = new ExecutorCompletionService<>(acquireExecutor());
+        List<Future<IndexedResult<R>>> running = new ArrayList<>();
+        List<R> results = new ArrayList<>();
+        long itemsProcessed = 0;
+        long submitted = 0;
+        long lastGc = System.nanoTime() - MIN_GC_INTERVAL_NANOS;
+        int throttled = 0;
+        boolean completed = false;
+
+        try {
+            while (true) {
+                while (running.size() < throttle.inFlightLimit() && source.hasNext()) {
+                    long used = heap.getAsLong();
+                    if (enableGarbageCollection && used > throttle.budgetBytes() * HeapThrottle.HIGH_WATERMARK
+                            && System.nanoTime() - lastGc >= MIN_GC_INTERVAL_NANOS) {
+                        System.gc();
+                        lastGc = System.nanoTime();
+                        used = heap.getAsLong();
+                    }
+                    if (throttle.update(used) && !running.isEmpty()) {
+                        // Heap proche du budget : attendre qu'un chunk libère sa mémoire
+                        throttled++;
+                        break;
+                    }
+                    long index = submitted++;
+                    List<T> chunk = nextChunk(source, throttle.chunkSize());
+                    running.add(completion.submit(() -> new IndexedResult<>(index, chunk.size(), chunkProcessor.apply(chunk))));
+                    if (!streamingMode) {
+                        results.add(null);
+                    }
+                }
+                if (running.isEmpty()) {
+                    break;
+                }
+
+                Future<IndexedResult<R>> done = completion.take();
+                running.remove(done);
+                IndexedResult<R> chunkResult = done.get();
+                itemsProcessed += chunkResult.size();
+                if (!streamingMode) {
+                    results.set((int) chunkResult.index(), chunkResult.result());
+                }
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                running.forEach(future -> future.cancel(true));
+            }
+        }
+
+        List<Integer> chunkSizes = throttle.history();
+        if (profiler != null) {
+            profiler.addProcessedItems(itemsProcessed);
+            profiler.recordChunkSizes(chunkSizes);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("Memory-budgeted processing completed: {} items in {} chunks, {}ms, throttled {} times",
+                itemsProcessed, submitted, duration, throttled);
+        log.debug("Chunk sizes: {}", chunkSizes);
+
+        return results;
+    }
+
+    /**
+     * Variante de {@link #processInChunks(Iterator, Function)} pour un {@link Iterable}.
+     */
+    public <T, R> List<R> processInChunks(Iterable<? extends T> source, Function<? super List<T>, ? extends R> chunkProcessor)
+            throws InterruptedException, ExecutionException {
+        return processInChunks(source.iterator(), chunkProcessor);
+    }
+
+    /**
+     * Variante de {@link #processInChunks(Iterator, Function)} pour un {@link Stream}.
+     * Le stream est consommé séquentiellement mais n'est pas fermé.
+     */
+    public <T, R> List<R> processInChunks(Stream<? extends T> source, Function<? super List<T>, ? extends R> chunkProcessor)
+            throws InterruptedException, ExecutionException {
+        return processInChunks(source.iterator(), chunkProcessor);
+    }
+
+    /**
+     * Arrête le pool interne après avoir laissé les chunks en cours se terminer, au plus
+     * {@code shutdownTimeout}. L'appel est idempotent.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        ExecutorService owned;
+        synchronized (ownedExecutor) {
+            owned = ownedExecutor.getAndSet(null);
+        }
+        if (owned == null) {
+            return;
+        }
+        try {
+            owned.shutdown();
+            if (!owned.awaitTermination(shutdownTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                log.warn("Executor did not terminate in {}ms, forcing shutdown", shutdownTimeout.toMillis());
+                owned.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            owned.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.debug("BatchOptimizer closed");
+    }
+
+    /**
+     * Retourne le pool interne, créé au premier appel.
+     */
+    private ExecutorService acquireExecutor() {
+        synchronized (ownedExecutor) {
+            if (closed.get()) {
+                throw new IllegalStateException("BatchOptimizer is closed");
+            }
+            ExecutorService current = ownedExecutor.get();
+            if (current == null) {
+                AtomicInteger counter = new AtomicInteger();
+                current = Executors.newFixedThreadPool(parallelism, runnable -> {
+                    Thread thread = new Thread(runnable, "batch-optimizer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                ownedExecutor.set(current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Budget en octets, plafonné au heap maximum.
+     */
+    private long budgetBytes() {
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        if (maxMemoryMB <= 0) {
+            return maxHeap / 4 * 3;
+        }
+        long budget = maxMemoryMB * 1024 * 1024;
+        if (heapUsage == null && budget > maxHeap) {
+            log.warn("maxMemoryMB={} exceeds max heap ({} MB), using max heap", maxMemoryMB, maxHeap / (1024 * 1024));
+            return maxHeap;
+        }
+        return budget;
+    }
+
+    /**
+     * Tire au plus {@code size} éléments de la source.
+     */
+    private static <T> List<T> nextChunk(Iterator<? extends T> source, int size) {
+        List<T> chunk = new ArrayList<>(size);
+        while (chunk.size() < size && source.hasNext()) {
+            chunk.add(source.next());
+        }
+        return chunk;
+    }
+
+    /**
+     * Résultat d'un chunk, avec son index dans la source et son nombre d'éléments.
+     */
+    private record IndexedResult<R>(long index, int size, R result) {
+    }
+}
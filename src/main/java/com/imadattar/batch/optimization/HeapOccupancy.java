@@ -0,0 +1,72 @@
+package com.imadattar.batch.optimization;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Occupation du heap après GC, mesure par défaut de {@link BatchOptimizer}.
+ *
+ * <p>Le heap utilisé ({@code MemoryMXBean.getHeapMemoryUsage().getUsed()}) compte les
+ * objets morts pas encore collectés : avec G1, il dépasse couramment le seuil haut entre
+ * deux GC jeunes, même si les données vivantes sont peu nombreuses. On ne mesure donc que
+ * les pools tenured (ceux qui acceptent un seuil d'usage : {@code G1 Old Gen},
+ * {@code Tenured Gen}, {@code PS Old Gen}...) :</p>
+ * <ul>
+ *     <li>Heap générationnel : occupation courante des pools tenured. Ils ne se remplissent
+ *     que par promotion des objets ayant survécu à un GC, jamais par les allocations
+ *     courtes. Leur occupation après le dernier GC complet
+ *     ({@link MemoryPoolMXBean#getCollectionUsage()}) n'est pas utilisable seule : avec G1,
+ *     elle reste à 0 tant qu'aucun GC ne collecte l'old gen, alors que les promotions le
+ *     remplissent.</li>
+ *     <li>Heap d'un seul pool (ZGC non générationnel, Shenandoah) : occupation à la fin du
+ *     dernier cycle ({@link MemoryPoolMXBean#getCollectionUsage()}), ou occupation
+ *     courante avant le premier cycle.</li>
+ * </ul>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+final class HeapOccupancy implements LongSupplier {
+
+    private final List<MemoryPoolMXBean> tenuredPools;
+
+    private final boolean generational;
+
+    HeapOccupancy() {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        this.tenuredPools = heapPools.stream()
+                .filter(MemoryPoolMXBean::isUsageThresholdSupported)
+                .toList();
+        this.generational = tenuredPools.size() < heapPools.size();
+    }
+
+    /**
+     * Occupation estimée des données vivantes, en octets.
+     */
+    @Override
+    public long getAsLong() {
+        if (tenuredPools.isEmpty()) {
+            // Collecteur sans pool identifiable : heap utilisé, à défaut
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+        long used = 0;
+        for (MemoryPoolMXBean pool : tenuredPools) {
+            used += generational ? pool.getUsage().getUsed() : afterLastCollection(pool);
+        }
+        return used;
+    }
+
+    private static long afterLastCollection(MemoryPoolMXBean pool) {
+        MemoryUsage collected = pool.getCollectionUsage();
+        if (collected == null || collected.getUsed() == 0) {
+            return pool.getUsage().getUsed();
+        }
+        return collected.getUsed();
+    }
+}
@@ -0,0 +1,111 @@
+package com.imadattar.batch.optimization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Régulation de l'admission des chunks selon l'occupation du heap.
+ *
+ * <p>Décroissance multiplicative, croissance progressive : au-dessus de
+ * {@value #HIGH_WATERMARK} du budget, la taille des chunks et le nombre de chunks en cours
+ * sont divisés par deux ; sous {@value #LOW_WATERMARK}, ils remontent progressivement.
+ * Entre les deux, rien ne change, ce qui évite d'osciller autour du seuil.</p>
+ *
+ * <p>Non thread-safe : utilisé par le seul thread qui admet les chunks.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+class HeapThrottle {
+
+    /**
+     * Part du budget au-delà de laquelle l'admission est freinée.
+     */
+    static final double HIGH_WATERMARK = 0.85;
+
+    /**
+     * Part du budget en deçà de laquelle l'admission accélère.
+     */
+    static final double LOW_WATERMARK = 0.60;
+
+    /**
+     * Croissance de la taille des chunks sous {@link #LOW_WATERMARK}.
+     */
+    static final double GROWTH_FACTOR = 1.25;
+
+    /**
+     * Nombre maximum de tailles conservées dans l'historique.
+     */
+    static final int MAX_HISTORY = 256;
+
+    private final long budgetBytes;
+
+    private final int minChunkSize;
+
+    private final int maxChunkSize;
+
+    private final int maxInFlight;
+
+    private final List<Integer> history = new ArrayList<>();
+
+    private int chunkSize;
+
+    private int inFlightLimit;
+
+    HeapThrottle(long budgetBytes, int initialChunkSize, int minChunkSize, int maxChunkSize, int maxInFlight) {
+        this.budgetBytes = budgetBytes;
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.maxInFlight = maxInFlight;
+        this.chunkSize = Math.max(minChunkSize, Math.min(initialChunkSize, maxChunkSize));
+        this.inFlightLimit = maxInFlight;
+        this.history.add(chunkSize);
+    }
+
+    /**
+     * Ajuste la taille des chunks et le nombre de chunks en cours d'après la mesure.
+     *
+     * @param usedBytes Heap utilisé
+     * @return {@code true} si le heap dépasse le seuil haut : mieux vaut attendre qu'un
+     *         chunk se termine avant d'en admettre un nouveau
+     */
+    boolean update(long usedBytes) {
+        double ratio = (double) usedBytes / budgetBytes;
+        if (ratio > HIGH_WATERMARK) {
+            resize(Math.max(minChunkSize, chunkSize / 2));
+            inFlightLimit = Math.max(1, inFlightLimit / 2);
+            return true;
+        }
+        if (ratio < LOW_WATERMARK) {
+            resize((int) Math.min(maxChunkSize, Math.max(chunkSize + 1L, (long) (chunkSize * GROWTH_FACTOR))));
+            inFlightLimit = Math.min(maxInFlight, inFlightLimit + 1);
+        }
+        return false;
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    int inFlightLimit() {
+        return inFlightLimit;
+    }
+
+    long budgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * Tailles successives retenues, la première étant la taille initiale.
+     */
+    List<Integer> history() {
+        return List.copyOf(history);
+    }
+
+    private void resize(int size) {
+        if (size != chunkSize && history.size() < MAX_HISTORY) {
+            history.add(size);
+        }
+        chunkSize = size;
+    }
+}
@@ -0,0 +1,115 @@
+package com.imadattar.batch.parallel;
+
+import lombok.Getter;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Résultat d'un traitement tolérant aux erreurs : résultats des éléments réussis et
+ * échecs des autres, sans interrompre le batch. Si le traitement a été annulé, certains
+ * éléments peuvent ne pas avoir été traités du tout ({@link #isComplete()}).
+ *
+ * <h2>Exemple d'utilisation</h2>
+ * <pre>{@code
+ * BatchResult<Result> batch = processor.tryProcess(records, this::processOne);
+ *
+ * batch.getFailures().forEach(failure ->
+ *     log.error("Record {} rejected", records.get(failure.getIndex()), failure.getException()));
+ * }</pre>
+ *
+ * @param <R> Type des résultats
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public class BatchResult<R> {
+
+    /**
+     * Un résultat par élément, dans l'ordre des éléments ; {@code null} pour un élément en
+     * échec ou non traité.
+     */
+    @Getter
+    private final List<R> results;
+
+    /**
+     * Échecs, triés par index d'élément.
+     */
+    @Getter
+    private final List<ItemFailure> failures;
+
+    private final BitSet failed = new BitSet();
+
+    private final BitSet unprocessed;
+
+    public BatchResult(List<R> results, List<ItemFailure> failures) {
+        this(results, failures, new BitSet());
+    }
+
+    /**
+     * @param unprocessed Index des éléments non traités, suite à une annulation
+     */
+    public BatchResult(List<R> results, List<ItemFailure> failures, BitSet unprocessed) {
+        this.results = results;
+        this.failures = failures.stream()
+                .sorted(Comparator.comparingInt(ItemFailure::getIndex))
+                .toList();
+        this.failures.forEach(failure -> failed.set(failure.getIndex()));
+        this.unprocessed = (BitSet) unprocessed.clone();
+    }
+
+    /**
+     * Indique si l'élément à l'index donné a été traité avec succès.
+     */
+    public boolean isSuccess(int index) {
+        return isProcessed(index) && !failed.get(index);
+    }
+
+    /**
+     * Indique si l'élément à l'index donné a été traité, avec succès ou en échec.
+     */
+    public boolean isProcessed(int index) {
+        return index >= 0 && index < results.size() && !unprocessed.get(index);
+    }
+
+    /**
+     * Indique si tous les éléments ont été traités, c'est-à-dire si le traitement n'a pas
+     * été interrompu par une annulation ou une échéance.
+     */
+    public boolean isComplete() {
+        return unprocessed.isEmpty();
+    }
+
+    public int getUnprocessedCount() {
+        return unprocessed.cardinality();
+    }
+
+    /**
+     * Résultats des seuls éléments réussis, dans l'ordre des éléments.
+     */
+    public List<R> getSuccessfulResults() {
+        return IntStream.range(0, results.size())
+                .filter(this::isSuccess)
+                .mapToObj(results::get)
+                .toList();
+    }
+
+    public int getSuccessCount() {
+        return results.size() - failures.size() - unprocessed.cardinality();
+    }
+
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult{items=%d, successes=%d, failures=%d, unprocessed=%d}",
+                results.size(), getSuccessCount(), getFailureCount(), getUnprocessedCount());
+    }
+}
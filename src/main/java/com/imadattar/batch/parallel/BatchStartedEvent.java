@@ -0,0 +1,56 @@
+package com.imadattar.batch.parallel;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis au démarrage d'un traitement par {@link ParallelBatchProcessor}.
+ *
+ * <p>Son identifiant de batch se retrouve sur chaque {@link ChunkExecutedEvent} du
+ * traitement, ce qui permet de regrouper les chunks d'un même batch dans un enregistrement
+ * (JDK Mission Control, {@code jfr print --events com.imadattar.batch.BatchStarted}).</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Name("com.imadattar.batch.BatchStarted")
+@Label("Batch Started")
+@Category({"Batch Optimizer", "Parallel Processing"})
+@Description("Start of a parallel batch run")
+@StackTrace(false)
+final class BatchStartedEvent extends jdk.jfr.Event {
+
+    @Label("Batch Id")
+    long batchId;
+
+    @Label("Items")
+    @Description("Number of items, or -1 when unknown at start (stream, file records)")
+    long items;
+
+    @Label("Chunk Size")
+    int chunkSize;
+
+    @Label("Parallelism")
+    int parallelism;
+
+    @Label("Strategy")
+    String strategy;
+
+    /**
+     * Émet l'événement si un enregistrement JFR en cours l'a activé.
+     */
+    static void emit(long batchId, long items, int chunkSize, int parallelism, PartitionStrategy strategy) {
+        BatchStartedEvent event = new BatchStartedEvent();
+        if (event.shouldCommit()) {
+            event.batchId = batchId;
+            event.items = items;
+            event.chunkSize = chunkSize;
+            event.parallelism = parallelism;
+            event.strategy = strategy.name();
+            event.commit();
+        }
+    }
+}
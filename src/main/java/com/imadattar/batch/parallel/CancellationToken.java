@@ -0,0 +1,151 @@
+package com.imadattar.batch.parallel;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Jeton d'annulation d'un traitement, avec échéance optionnelle.
+ *
+ * <p>Passé à {@link ParallelBatchProcessor#tryProcess(List, java.util.function.Function, CancellationToken)}
+ * ou à {@link ParallelBatchProcessor#processStream(java.util.Iterator, java.util.function.Function,
+ * java.util.function.Consumer, CancellationToken) processStream}, il arrête la distribution des
+ * éléments dès son annulation ou à l'échéance, et le traitement retourne les résultats
+ * obtenus jusque-là. Un même jeton peut être partagé entre plusieurs traitements, pour
+ * arrêter tout un batch d'un coup.</p>
+ *
+ * <p>Les autres traitements ({@code process}, {@code processWeighted},
+ * {@code processByKey}, {@code processFile}, tableaux primitifs) ne sont pas annulables :
+ * leur résultat, une liste complète ou une exception, n'a pas de forme partielle. Pour les
+ * borner dans le temps, utiliser {@code tryProcess}, ou {@code processStream} sur la
+ * liste.</p>
+ *
+ * <h2>Exemple d'utilisation</h2>
+ * <pre>{@code
+ * // Fenêtre de batch : tout doit être terminé dans 2 heures
+ * CancellationToken window = CancellationToken.withDeadline(Duration.ofHours(2));
+ *
+ * BatchResult<Result> batch = processor.tryProcess(records, this::process, window);
+ * if (!batch.isComplete()) {
+ *     scheduleRemaining(batch.getUnprocessedCount());
+ * }
+ * }</pre>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public final class CancellationToken {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * Délai au-delà duquel le jeton n'a pas d'échéance : les échéances se comparent par
+     * différence de {@link System#nanoTime()}, valable sur moins de 2<sup>63</sup> ns ; la
+     * moitié laisse une marge de plus de 140 ans.
+     */
+    private static final long MAX_TIMEOUT_NANOS = Long.MAX_VALUE / 2;
+
+    /**
+     * Échéance en {@link System#nanoTime()}, ou {@link #NO_DEADLINE}.
+     */
+    private final long deadlineNanos;
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private CancellationToken(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Jeton sans échéance, annulé uniquement par {@link #cancel()}.
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(NO_DEADLINE);
+    }
+
+    /**
+     * Jeton annulé automatiquement à l'issue du délai, compté à partir de maintenant.
+     * Un délai de plus de 140 ans équivaut à l'absence d'échéance.
+     *
+     * @param timeout Délai avant l'échéance
+     */
+    public static CancellationToken withDeadline(Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+        }
+        if (timeout.compareTo(Duration.ofNanos(MAX_TIMEOUT_NANOS)) > 0) {
+            return create();
+        }
+        // La somme peut dépasser Long.MAX_VALUE : la comparaison par différence reste juste
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return new CancellationToken(deadline == NO_DEADLINE ? deadline - 1 : deadline);
+    }
+
+    /**
+     * Annule le jeton. Les traitements en cours cessent de distribuer des éléments.
+     * L'appel est idempotent, y compris entre threads : les actions enregistrées ne sont
+     * exécutées qu'une fois.
+     */
+    public void cancel() {
+        if (cancelled.compareAndSet(false, true)) {
+            for (Runnable listener : listeners) {
+                runOnce(listener);
+            }
+        }
+    }
+
+    /**
+     * Indique si le jeton est annulé ou si son échéance est dépassée.
+     */
+    public boolean isCancelled() {
+        return cancelled.get() || (deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    public boolean hasDeadline() {
+        return deadlineNanos != NO_DEADLINE;
+    }
+
+    /**
+     * Temps restant avant l'échéance ({@code Duration.ZERO} si elle est dépassée).
+     *
+     * @throws IllegalStateException si le jeton n'a pas d'échéance
+     */
+    public Duration remaining() {
+        if (!hasDeadline()) {
+            throw new IllegalStateException("CancellationToken has no deadline");
+        }
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Enregistre une action exécutée à l'annulation, immédiatement si le jeton est déjà
+     * annulé. L'échéance ne déclenche pas les actions : elle est surveillée par le processeur.
+     */
+    void onCancel(Runnable listener) {
+        listeners.add(listener);
+        if (cancelled.get()) {
+            // Annulation concurrente : l'action ne s'exécute qu'une fois
+            runOnce(listener);
+        }
+    }
+
+    private void runOnce(Runnable listener) {
+        if (listeners.remove(listener)) {
+            listener.run();
+        }
+    }
+
+    void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public String toString() {
+        return hasDeadline()
+                ? "CancellationToken{cancelled=" + isCancelled() + ", remaining=" + remaining() + "}"
+                : "CancellationToken{cancelled=" + cancelled.get() + "}";
+    }
+}
@@ -0,0 +1,468 @@
+package com.imadattar.batch.parallel;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Point de reprise d'un traitement : journal, sur disque, des plages d'éléments terminées.
+ *
+ * <p>Passé à {@link ParallelBatchProcessor#process(List, java.util.function.Function, Checkpoint)},
+ * il enregistre chaque bloc d'éléments traité dans un fichier en ajout seul. Si le
+ * traitement échoue ou si la JVM s'arrête, un nouvel appel avec le même fichier ne traite
+ * que les éléments absents du journal. Avec un {@link ResultCodec}, les résultats sont
+ * journalisés aussi et restitués à la reprise ; sans codec, les éléments repris ont un
+ * résultat {@code null} (traitements à effet de bord : écriture en base, envoi...).</p>
+ *
+ * <h2>Exemple d'utilisation</h2>
+ * <pre>{@code
+ * Checkpoint<Result> checkpoint = Checkpoint.at(Path.of("/var/batch/reconciliation.ckpt"), RESULT_CODEC);
+ *
+ * // Relancé après un échec : seuls les chunks non terminés sont retraités
+ * List<Result> results = processor.process(entries, this::reconcile, checkpoint);
+ * }</pre>
+ *
+ * <p>Les workers ne font qu'encoder leurs enregistrements : l'écriture et le
+ * {@code fsync} sont faits par un thread dédié, par lots, au plus une fois par
+ * {@code flushInterval}. Un arrêt brutal perd donc au plus les blocs de la dernière
+ * période, qui seront retraités : le traitement doit être idempotent. Un élément réussi
+ * lors d'une nouvelle tentative différée ({@code retryPolicy}) n'est pas journalisé.
+ * Chaque enregistrement porte un CRC ; une fin de fichier tronquée par un arrêt brutal
+ * est ignorée à la reprise.</p>
+ *
+ * <p>Le fichier est supprimé à la fin d'un traitement réussi. Il est propre à une liste
+ * d'éléments : reprendre avec une liste de taille différente lève une
+ * {@link IllegalStateException}.</p>
+ *
+ * @param <R> Type des résultats
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Slf4j
+public final class Checkpoint<R> {
+
+    /**
+     * Période d'écriture par défaut.
+     */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(200);
+
+    private static final int MAGIC = 0x42434B50; // "BCKP"
+
+    private static final int VERSION = 1;
+
+    /**
+     * En-tête : magic, version, nombre d'éléments.
+     */
+    private static final int HEADER_BYTES = 12;
+
+    /**
+     * Enregistrement : from, to, longueur des résultats, [résultats], CRC.
+     */
+    private static final int RECORD_OVERHEAD_BYTES = 16;
+
+    private final Path file;
+
+    private final ResultCodec<R> codec;
+
+    private final Duration flushInterval;
+
+    private final AtomicBoolean inUse = new AtomicBoolean();
+
+    private final LongAdder recordingNanos = new LongAdder();
+
+    private volatile Journal journal;
+
+    private volatile int restoredItems;
+
+    private volatile long recordsWritten;
+
+    private volatile long syncs;
+
+    private Checkpoint(Path file, ResultCodec<R> codec, Duration flushInterval) {
+        if (flushInterval.isNegative()) {
+            throw new IllegalArgumentException("flushInterval must not be negative: " + flushInterval);
+        }
+        this.file = file;
+        this.codec = codec;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Point de reprise sans journalisation des résultats.
+     */
+    public static <R> Checkpoint<R> at(Path file) {
+        return new Checkpoint<>(file, null, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Point de reprise journalisant aussi les résultats.
+     */
+    public static <R> Checkpoint<R> at(Path file, ResultCodec<R> codec) {
+        return new Checkpoint<>(file, codec, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Période d'écriture et de {@code fsync} du journal : compromis entre le nombre
+     * d'appels système et la quantité de travail perdue en cas d'arrêt brutal.
+     */
+    public Checkpoint<R> withFlushInterval(Duration interval) {
+        return new Checkpoint<>(file, codec, interval);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Nombre d'éléments repris du journal par la dernière exécution.
+     */
+    public int getRestoredItems() {
+        return restoredItems;
+    }
+
+    /**
+     * Nombre d'enregistrements écrits par la dernière exécution.
+     */
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    /**
+     * Nombre de {@code fsync} faits par la dernière exécution.
+     */
+    public long getSyncs() {
+        return syncs;
+    }
+
+    /**
+     * Temps cumulé passé par les workers à journaliser (encodage et mise en file) :
+     * le surcoût du point de reprise sur le chemin critique.
+     */
+    public Duration getRecordingTime() {
+        return Duration.ofNanos(recordingNanos.sum());
+    }
+
+    /**
+     * Ouvre le journal pour une exécution : relit les plages déjà terminées, restitue leurs
+     * résultats dans {@code results}, puis démarre le thread d'écriture.
+     *
+     * @return Index des éléments déjà traités
+     * @throws IllegalStateException si le journal concerne une autre liste, ou si le point
+     *         de reprise est déjà utilisé par une autre exécution
+     * @throws UncheckedIOException si le journal ne peut pas être lu ou écrit
+     */
+    BitSet open(int itemCount, Object[] results) {
+        if (!inUse.compareAndSet(false, true)) {
+            throw new IllegalStateException("Checkpoint " + file + " is already in use");
+        }
+        try {
+            recordingNanos.reset();
+            recordsWritten = 0;
+            syncs = 0;
+            BitSet done = new BitSet(itemCount);
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                long validEnd = restore(channel, itemCount, done, results);
+                if (validEnd < channel.size()) {
+                    log.warn("Checkpoint {}: ignoring {} bytes of incomplete records", file, channel.size() - validEnd);
+                    channel.truncate(validEnd);
+                }
+                if (validEnd == 0) {
+                    writeHeader(channel, itemCount);
+                }
+                channel.position(channel.size());
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            restoredItems = done.cardinality();
+            if (restoredItems > 0) {
+                log.info("Checkpoint {}: resuming with {} of {} items already processed", file, restoredItems, itemCount);
+            }
+            journal = new Journal(channel);
+            return done;
+        } catch (IOException e) {
+            inUse.set(false);
+            throw new UncheckedIOException("Cannot open checkpoint " + file, e);
+        } catch (RuntimeException e) {
+            inUse.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Journalise la plage {@code [from, to)}, terminée. Appelé par les workers : encode
+     * l'enregistrement et le met en file, sans écriture disque.
+     */
+    void record(int from, int to, Object[] results) {
+        if (from >= to) {
+            return;
+        }
+        long start = System.nanoTime();
+        journal.append(encode(from, to, results));
+        recordingNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Termine l'exécution : écrit les enregistrements en attente et ferme le journal.
+     * Si {@code completed}, le traitement est terminé et le fichier est supprimé.
+     *
+     * @throws UncheckedIOException si le journal ne peut pas être écrit
+     */
+    void close(boolean completed) {
+        Journal current = journal;
+        journal = null;
+        try {
+            current.close();
+            recordsWritten = current.records;
+            syncs = current.syncs;
+            log.debug("Checkpoint {}: {} records, {} syncs, {}ms spent recording on workers", file,
+                    recordsWritten, syncs, TimeUnit.NANOSECONDS.toMillis(recordingNanos.sum()));
+            if (completed) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write checkpoint " + file, e);
+        } finally {
+            inUse.set(false);
+        }
+    }
+
+    private ByteBuffer encode(int from, int to, Object[] results) {
+        byte[] payload = new byte[0];
+        if (codec != null) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * (to - from));
+            DataOutputStream out = new DataOutputStream(bytes);
+            try {
+                for (int i = from; i < to; i++) {
+                    codec.write(castResult(results[i]), out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot encode results [" + from + ", " + to + ")", e);
+            }
+            payload = bytes.toByteArray();
+        }
+        ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD_BYTES + payload.length);
+        record.putInt(from).putInt(to).putInt(payload.length).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        return record.flip();
+    }
+
+    /**
+     * Relit le journal et marque les plages terminées.
+     *
+     * @return Position de fin du dernier enregistrement valide (0 si le fichier est vide
+     *         ou son en-tête incomplet)
+     */
+    private long restore(FileChannel channel, int itemCount, BitSet done, Object[] results) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            return 0;
+        }
+        InputStream stream = new BufferedInputStream(Channels.newInputStream(channel.position(0)), 64 * 1024);
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IllegalStateException(file + " is not a checkpoint file");
+        }
+        int journalItems = in.readInt();
+        if (journalItems != itemCount) {
+            throw new IllegalStateException("Checkpoint " + file + " was written for " + journalItems
+                    + " items, not " + itemCount);
+        }
+
+        long position = HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        byte[] head = new byte[12];
+        while (position + RECORD_OVERHEAD_BYTES <= size) {
+            try {
+                in.readFully(head);
+                ByteBuffer header = ByteBuffer.wrap(head);
+                int from = header.getInt();
+                int to = header.getInt();
+                int length = header.getInt();
+                if (from < 0 || to > itemCount || from >= to || length < 0
+                        || position + RECORD_OVERHEAD_BYTES + length > size) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(head);
+                crc.update(payload);
+                if (in.readInt() != (int) crc.getValue()) {
+                    break;
+                }
+                if (codec != null && length > 0) {
+                    decode(payload, from, to, results);
+                }
+                done.set(from, to);
+                position += RECORD_OVERHEAD_BYTES + length;
+            } catch (EOFException e) {
+                break;
+            }
+        }
+        return position;
+    }
+
+    private void decode(byte[] payload, int from, int to, Object[] results) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        for (int i = from; i < to; i++) {
+            results[i] = codec.read(in);
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, int itemCount) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(itemCount).flip();
+        channel.truncate(0).position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R castResult(Object result) {
+        return (R) result;
+    }
+
+    /**
+     * Écriture du journal par un thread dédié : les enregistrements en file sont écrits en
+     * une seule écriture groupée, suivie d'un seul {@code fsync}, à chaque période.
+     */
+    private final class Journal {
+
+        /**
+         * Marqueur de fermeture, réveille le thread d'écriture en attente.
+         */
+        private static final ByteBuffer CLOSE = ByteBuffer.allocate(0);
+
+        private final FileChannel channel;
+
+        private final BlockingQueue<ByteBuffer> queue = new LinkedBlockingQueue<>();
+
+        private final Thread writer;
+
+        private volatile boolean closing;
+
+        private volatile IOException failure;
+
+        private long records;
+
+        private long syncs;
+
+        Journal(FileChannel channel) {
+            this.channel = channel;
+            this.writer = new Thread(this::run, "batch-checkpoint");
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        void append(ByteBuffer record) {
+            if (failure != null) {
+                throw new UncheckedIOException("Cannot write checkpoint " + file, failure);
+            }
+            queue.add(record);
+        }
+
+        void close() throws IOException {
+            closing = true;
+            queue.add(CLOSE);
+            // Pas d'interruption : elle fermerait le FileChannel en cours d'écriture
+            LockSupport.unpark(writer);
+            boolean interrupted = false;
+            while (writer.isAlive()) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            channel.close();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private void run() {
+            long intervalNanos = flushInterval.toNanos();
+            try {
+                while (!closing) {
+                    ByteBuffer first;
+                    try {
+                        first = queue.take();
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                    // Laisse les enregistrements s'accumuler jusqu'à la fin de la période
+                    long deadline = System.nanoTime() + intervalNanos;
+                    long remaining;
+                    while (!closing && (remaining = deadline - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(this, remaining);
+                    }
+                    write(first);
+                }
+                write(null);
+            } catch (IOException e) {
+                failure = e;
+                log.error("Checkpoint {}: write failed, progress is no longer recorded", file, e);
+            }
+        }
+
+        /**
+         * Écrit {@code first} et tous les enregistrements en file, puis synchronise le fichier.
+         */
+        private void write(ByteBuffer first) throws IOException {
+            List<ByteBuffer> batch = new ArrayList<>();
+            if (first != null) {
+                batch.add(first);
+            }
+            queue.drainTo(batch);
+            batch.removeIf(buffer -> buffer == CLOSE);
+            if (batch.isEmpty()) {
+                return;
+            }
+            ByteBuffer[] buffers = batch.toArray(ByteBuffer[]::new);
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            channel.force(false);
+            records += buffers.length;
+            syncs++;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.imadattar.batch.parallel;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR couvrant l'exécution d'un chunk, sur le thread du worker.
+ *
+ * <p>La durée et le thread sont ceux de l'événement : dans un enregistrement, les chunks
+ * s'alignent sur les pauses GC, les contentions de verrous et les I/O du même thread.
+ * L'événement est créé et chronométré à chaque chunk ; ses champs ne sont renseignés que
+ * s'il est enregistré.</p>
+ *
+ * <p>{@code firstItem} est toujours l'index d'un élément dans la liste ou le flux
+ * d'origine : avec {@code processByKey}, les éléments d'une voie ne sont pas contigus et
+ * c'est l'index du premier élément de la voie ; avec {@code processFile}, la position d'un
+ * enregistrement n'est connue qu'après l'analyse de tout le fichier, il vaut {@code -1}
+ * et {@code size} compte les enregistrements de la plage d'octets.</p>
+ *
+ * <p>En {@link PartitionStrategy#VIRTUAL}, les traitements de listes découpés par la
+ * stratégie soumettent un élément par tâche : aucun événement n'est émis, seuls les
+ * {@link SlowItemEvent} sont signalés. Les plages imposées ({@code processWeighted},
+ * {@code processByKey}, {@code processFile}, reprise sur {@link Checkpoint}) et les chunks
+ * de {@code processStream} restent de vrais chunks, couverts par l'événement.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Name("com.imadattar.batch.ChunkExecuted")
+@Label("Chunk Executed")
+@Category({"Batch Optimizer", "Parallel Processing"})
+@Description("Execution of a chunk of items by a worker")
+@StackTrace(false)
+final class ChunkExecutedEvent extends jdk.jfr.Event {
+
+    @Label("Batch Id")
+    long batchId;
+
+    @Label("First Item")
+    @Description("Index of the first item of the chunk in the batch input, -1 for file records")
+    long firstItem;
+
+    @Label("Size")
+    int size;
+
+    @Label("Strategy")
+    String strategy;
+
+    /**
+     * Termine la mesure et enregistre l'événement s'il est activé et dépasse son seuil.
+     */
+    void complete(long batchId, long firstItem, int size, PartitionStrategy strategy) {
+        end();
+        if (shouldCommit()) {
+            this.batchId = batchId;
+            this.firstItem = firstItem;
+            this.size = size;
+            this.strategy = strategy.name();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.imadattar.batch.parallel;
+
+/**
+ * Éléments du traitement couverts par les plages d'index d'une {@link ChunkTask}, tels que
+ * remontés au profileur et dans les événements JFR.
+ *
+ * <p>Par défaut ({@link #INDEX}), un index de tâche est un élément. Une tâche qui parcourt
+ * autre chose, comme les plages d'octets de {@code processFile}, fournit sa propre
+ * correspondance.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+interface ChunkItems {
+
+    /**
+     * Un élément par index de tâche.
+     */
+    ChunkItems INDEX = new ChunkItems() {
+    };
+
+    /**
+     * Nombre d'éléments du traitement, connu au démarrage.
+     *
+     * @param size Nombre d'index de tâche
+     * @return Nombre d'éléments, ou {@code -1} s'il n'est connu qu'à la fin : le traitement
+     *         remonte alors lui-même ses éléments au profileur
+     */
+    default long total(int size) {
+        return size;
+    }
+
+    /**
+     * Index dans le traitement du premier élément de la plage {@code [from, to)}.
+     *
+     * @return Index de l'élément, ou {@code -1} s'il n'est pas connu à la fin de la plage
+     */
+    default long firstItem(int from) {
+        return from;
+    }
+
+    /**
+     * Nombre d'éléments traités par la plage {@code [from, to)}, une fois celle-ci terminée.
+     */
+    default int size(int from, int to) {
+        return to - from;
+    }
+}
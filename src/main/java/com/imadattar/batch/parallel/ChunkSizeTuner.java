@@ -0,0 +1,117 @@
+package com.imadattar.batch.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ajuste la taille des chunks à partir du coût mesuré par item.
+ *
+ * <p>Les premiers chunks sont volontairement petits ({@link #SAMPLE_SIZE} items) pour
+ * échantillonner le coût d'un item. Chaque chunk terminé met à jour une moyenne mobile
+ * exponentielle de ce coût, ainsi que du surcoût de répartition payé à chaque chunk :
+ * temps de prise en charge d'un chunk soumis au pool (du démarrage de la tâche sur le
+ * worker au premier item, hors attente dans la file), ou, quand les workers tirent
+ * eux-mêmes leurs chunks, temps écoulé entre la fin d'un chunk et le début du suivant sur
+ * le même worker. La taille retenue vise une durée de chunk égale à la
+ * cible, sans descendre sous {@value #OVERHEAD_FACTOR} fois ce surcoût, pour qu'il reste
+ * négligeable.</p>
+ *
+ * <p>Thread-safe : les workers enregistrent leurs mesures en parallèle.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+class ChunkSizeTuner {
+
+    /**
+     * Taille des chunks d'échantillonnage.
+     */
+    static final int SAMPLE_SIZE = 16;
+
+    /**
+     * Un chunk doit durer au moins ce multiple du surcoût de répartition.
+     */
+    static final int OVERHEAD_FACTOR = 20;
+
+    /**
+     * Poids d'une nouvelle mesure dans la moyenne mobile.
+     */
+    private static final double ALPHA = 0.3;
+
+    /**
+     * Écart relatif minimal pour changer de taille (évite d'osciller sur le bruit).
+     */
+    private static final double HYSTERESIS = 0.1;
+
+    /**
+     * Nombre maximal de décisions conservées pour les métriques.
+     */
+    private static final int MAX_HISTORY = 256;
+
+    private final long targetNanos;
+    private final int maxChunkSize;
+    private final List<Integer> history = new ArrayList<>();
+
+    private volatile int chunkSize;
+    private double itemNanos = -1;
+    private double overheadNanos;
+
+    ChunkSizeTuner(long targetNanos, int maxChunkSize) {
+        this.targetNanos = targetNanos;
+        this.maxChunkSize = Math.max(1, maxChunkSize);
+        this.chunkSize = Math.min(SAMPLE_SIZE, this.maxChunkSize);
+        this.history.add(chunkSize);
+    }
+
+    /**
+     * Taille à utiliser pour le prochain chunk.
+     */
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Enregistre la durée de traitement d'un chunk.
+     *
+     * @param items Nombre d'items du chunk
+     * @param elapsedNanos Durée de traitement du chunk
+     */
+    synchronized void recordChunk(int items, long elapsedNanos) {
+        if (items <= 0) {
+            return;
+        }
+        double sample = (double) elapsedNanos / items;
+        itemNanos = itemNanos < 0 ? sample : ALPHA * sample + (1 - ALPHA) * itemNanos;
+        retune();
+    }
+
+    /**
+     * Enregistre le surcoût de répartition d'un chunk : délai entre sa prise en charge par
+     * un worker et son premier item, ou entre la fin du chunk précédent du même worker et
+     * son démarrage. Une attente dans la file du pool n'est pas un surcoût : la compter
+     * ferait croître la taille des chunks sans fin.
+     */
+    synchronized void recordDispatchOverhead(long delayNanos) {
+        overheadNanos = ALPHA * delayNanos + (1 - ALPHA) * overheadNanos;
+    }
+
+    /**
+     * Tailles successivement retenues, dans l'ordre.
+     */
+    synchronized List<Integer> history() {
+        return List.copyOf(history);
+    }
+
+    private void retune() {
+        double goalNanos = Math.max(targetNanos, OVERHEAD_FACTOR * overheadNanos);
+        long ideal = Math.round(goalNanos / Math.max(itemNanos, 1.0));
+        int next = (int) Math.max(1, Math.min(maxChunkSize, ideal));
+
+        if (Math.abs(next - chunkSize) > HYSTERESIS * chunkSize) {
+            chunkSize = next;
+            if (history.size() < MAX_HISTORY) {
+                history.add(next);
+            }
+        }
+    }
+}
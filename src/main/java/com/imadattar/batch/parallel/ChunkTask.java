@@ -0,0 +1,17 @@
+package com.imadattar.batch.parallel;
+
+/**
+ * Traitement d'une plage d'index {@code [from, to)}.
+ *
+ * <p>La tâche écrit elle-même ses résultats (tableau pré-dimensionné) : quelle que soit la
+ * façon dont les plages sont découpées et ordonnancées, aucun résultat ne transite par
+ * les Futures.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@FunctionalInterface
+interface ChunkTask {
+
+    void run(int from, int to);
+}
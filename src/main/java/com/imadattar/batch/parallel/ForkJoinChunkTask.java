@@ -0,0 +1,72 @@
+package com.imadattar.batch.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Découpage récursif d'une plage d'index pour le Fork/Join.
+ *
+ * <p>Contrairement au découpage en chunks fixes, la plage est coupée en deux tant qu'elle
+ * dépasse le seuil ; les moitiés forkées peuvent être volées par les threads inactifs, si bien
+ * qu'une zone coûteuse de l'entrée est redistribuée jusqu'à la granularité du seuil.</p>
+ *
+ * <p>En mode paresseux (<i>lazy binary splitting</i>), la tâche ne se coupe que lorsque
+ * peu de tâches forkées attendent dans sa file ({@link #getSurplusQueuedTaskCount()}) :
+ * tant que les autres threads ont du travail, elle avance par blocs de {@code threshold}
+ * éléments sans créer de sous-tâches, et se recoupe dès qu'ils deviennent inactifs.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+class ForkJoinChunkTask extends RecursiveAction {
+
+    /**
+     * Au-delà de ce nombre de tâches en attente, les threads voisins ont assez de travail.
+     */
+    private static final int SURPLUS_THRESHOLD = 3;
+
+    private final ChunkTask task;
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final boolean lazySplitting;
+
+    ForkJoinChunkTask(ChunkTask task, int from, int to, int threshold, boolean lazySplitting) {
+        this.task = task;
+        this.from = from;
+        this.to = to;
+        this.threshold = Math.max(1, threshold);
+        this.lazySplitting = lazySplitting;
+    }
+
+    @Override
+    protected void compute() {
+        List<ForkJoinChunkTask> forked = new ArrayList<>();
+        int lo = from;
+        int hi = to;
+
+        while (lo < hi) {
+            if (hi - lo > threshold && shouldSplit()) {
+                int mid = (lo + hi) >>> 1;
+                ForkJoinChunkTask right = new ForkJoinChunkTask(task, mid, hi, threshold, lazySplitting);
+                right.fork();
+                forked.add(right);
+                hi = mid;
+            } else {
+                int end = Math.min(lo + threshold, hi);
+                task.run(lo, end);
+                lo = end;
+            }
+        }
+
+        // Les moitiés non volées sont exécutées localement (ordre LIFO)
+        for (int i = forked.size() - 1; i >= 0; i--) {
+            forked.get(i).join();
+        }
+    }
+
+    private boolean shouldSplit() {
+        return !lazySplitting || getSurplusQueuedTaskCount() <= SURPLUS_THRESHOLD;
+    }
+}
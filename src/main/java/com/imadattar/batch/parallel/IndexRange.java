@@ -0,0 +1,47 @@
+package com.imadattar.batch.parallel;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Plage d'index {@code [from, to)} traitée comme un chunk.
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+record IndexRange(int from, int to) {
+
+    int size() {
+        return to - from;
+    }
+
+    /**
+     * Découpe {@code [0, size)} en plages de {@code chunkSize} index.
+     */
+    static List<IndexRange> split(int size, int chunkSize) {
+        List<IndexRange> ranges = new ArrayList<>((size + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < size; from += chunkSize) {
+            ranges.add(new IndexRange(from, Math.min(from + chunkSize, size)));
+        }
+        return ranges;
+    }
+
+    /**
+     * Découpe les index de {@code [0, size)} absents de {@code excluded} en plages d'au plus
+     * {@code chunkSize} index.
+     */
+    static List<IndexRange> split(BitSet excluded, int size, int chunkSize) {
+        List<IndexRange> ranges = new ArrayList<>();
+        int from = excluded.nextClearBit(0);
+        while (from < size) {
+            int next = excluded.nextSetBit(from);
+            int end = next < 0 ? size : Math.min(next, size);
+            for (int start = from; start < end; start += chunkSize) {
+                ranges.add(new IndexRange(start, Math.min(start + chunkSize, end)));
+            }
+            from = excluded.nextClearBit(end);
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,33 @@
+package com.imadattar.batch.parallel;
+
+import lombok.Getter;
+
+/**
+ * Échec du traitement d'un élément.
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Getter
+public class ItemFailure {
+
+    /**
+     * Index de l'élément dans la liste d'entrée.
+     */
+    private final int index;
+
+    /**
+     * Exception levée par la fonction de traitement.
+     */
+    private final Exception exception;
+
+    public ItemFailure(int index, Exception exception) {
+        this.index = index;
+        this.exception = exception;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ItemFailure{index=%d, exception=%s}", index, exception);
+    }
+}
@@ -0,0 +1,22 @@
+package com.imadattar.batch.parallel;
+
+/**
+ * Traitement d'un élément connaissant sa position dans le traitement.
+ *
+ * <p>Forme interne de la fonction de l'appelant, enveloppée pour le profileur et JFR : la
+ * position n'est utilisée que pour décrire l'élément ({@link SlowItemEvent}).</p>
+ *
+ * @param <T> Type des éléments en entrée
+ * @param <R> Type des résultats
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@FunctionalInterface
+interface ItemFunction<T, R> {
+
+    /**
+     * @param index Position de l'élément dans le traitement, ou {@code -1} si elle n'est pas
+     *              connue
+     */
+    R apply(long index, T item);
+}
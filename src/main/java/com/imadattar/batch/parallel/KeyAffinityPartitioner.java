@@ -0,0 +1,99 @@
+package com.imadattar.batch.parallel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Répartit les éléments en voies (<i>lanes</i>) selon leur clé : tous les éléments d'une
+ * même clé tombent dans la même voie, dans l'ordre de la liste.
+ *
+ * <p>Chaque voie est traitée séquentiellement par une seule tâche, ce qui garantit l'ordre
+ * par clé sans verrou ; des clés différentes sont traitées en parallèle. Les clés sont
+ * affectées par hachage à {@code parallelism × }{@value #LANES_PER_WORKER} voies, sauf les
+ * clés « chaudes » (plus d'éléments qu'une voie moyenne) qui reçoivent une voie dédiée :
+ * elles ne bloquent pas les clés qui partageraient leur voie, et, les voies étant soumises
+ * de la plus longue à la plus courte, elles démarrent en premier au lieu de former la queue
+ * de l'exécution.</p>
+ *
+ * <p>Les voies sont matérialisées par une permutation des index : la voie {@code k} est
+ * la plage {@code lanes[k]} de {@code order}.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+final class KeyAffinityPartitioner {
+
+    /**
+     * Nombre de voies de hachage par worker.
+     */
+    static final int LANES_PER_WORKER = 4;
+
+    private KeyAffinityPartitioner() {
+    }
+
+    /**
+     * @param order Index des éléments, regroupés par voie et dans l'ordre de la liste dans chaque voie
+     * @param lanes Plages de {@code order} formant chaque voie, de la plus longue à la plus courte
+     * @param hotKeys Nombre de clés ayant reçu une voie dédiée
+     */
+    record KeyLanes(int[] order, List<IndexRange> lanes, int hotKeys) {
+    }
+
+    static <T> KeyLanes partition(List<T> items, Function<? super T, ?> keyExtractor, int parallelism) {
+        int size = items.size();
+        int hashLanes = parallelism * LANES_PER_WORKER;
+
+        // Clé et volume de chaque clé
+        Object[] keys = new Object[size];
+        Map<Object, Integer> counts = new HashMap<>();
+        int i = 0;
+        for (T item : items) {
+            keys[i] = keyExtractor.apply(item);
+            counts.merge(keys[i++], 1, Integer::sum);
+        }
+
+        // Les clés plus volumineuses qu'une voie moyenne reçoivent une voie dédiée
+        int hotThreshold = Math.max(1, size / hashLanes);
+        Map<Object, Integer> dedicatedLanes = new HashMap<>();
+        counts.forEach((key, count) -> {
+            if (count > hotThreshold) {
+                dedicatedLanes.put(key, hashLanes + dedicatedLanes.size());
+            }
+        });
+
+        int[] laneOfItem = new int[size];
+        int[] laneSizes = new int[hashLanes + dedicatedLanes.size()];
+        for (i = 0; i < size; i++) {
+            Integer dedicated = dedicatedLanes.get(keys[i]);
+            laneOfItem[i] = dedicated != null ? dedicated : Math.floorMod(spread(keys[i]), hashLanes);
+            laneSizes[laneOfItem[i]]++;
+        }
+
+        // Permutation stable : l'ordre de la liste est conservé au sein de chaque voie
+        int[] laneStarts = new int[laneSizes.length];
+        List<IndexRange> lanes = new ArrayList<>();
+        for (int lane = 0, offset = 0; lane < laneSizes.length; offset += laneSizes[lane++]) {
+            laneStarts[lane] = offset;
+            if (laneSizes[lane] > 0) {
+                lanes.add(new IndexRange(offset, offset + laneSizes[lane]));
+            }
+        }
+        int[] order = new int[size];
+        for (i = 0; i < size; i++) {
+            order[laneStarts[laneOfItem[i]]++] = i;
+        }
+
+        lanes.sort(Comparator.comparingInt(IndexRange::size).reversed());
+        return new KeyLanes(order, lanes, dedicatedLanes.size());
+    }
+
+    private static int spread(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+}
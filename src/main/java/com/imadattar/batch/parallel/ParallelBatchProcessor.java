@@ -1,13 +1,38 @@
 package com.imadattar.batch.parallel;
 
+import com.imadattar.batch.io.ByteRange;
+import com.imadattar.batch.io.MappedFileSource;
+import com.imadattar.batch.profiling.BatchProfiler;
+import com.imadattar.batch.retry.RetryPolicy;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 /**
  * Processeur de batch parallèle pour optimiser le traitement de grandes volumétries.
@@ -15,16 +40,31 @@ import java.util.stream.Collectors;
  * <p>Permet de passer de traitements séquentiels lents (heures) à des traitements
  * parallèles rapides (minutes) grâce à une gestion intelligente des threads.</p>
  *
+ * <p>Le pool de threads est créé au premier appel puis conservé entre les appels
+ * successifs à {@link #process(List, Function)} : les threads restent chauds et le coût
+ * de création/destruction n'est payé qu'une seule fois. Le processeur doit donc être
+ * fermé via {@link #close()} (ou un bloc try-with-resources) lorsqu'il n'est plus utilisé.</p>
+ *
  * <h2>Exemple d'utilisation</h2>
  * <pre>{@code
- * ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
- *     .parallelism(8)
- *     .chunkSize(1000)
- *     .build();
+ * try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+ *         .parallelism(8)
+ *         .chunkSize(1000)
+ *         .build()) {
  *
- * List<Result> results = processor.process(data, item -> processItem(item));
+ *     List<Result> results = processor.process(data, item -> processItem(item));
+ * }
  * }</pre>
  *
+ * <h2>Java Flight Recorder</h2>
+ * <p>Chaque traitement émet des événements JFR ({@code com.imadattar.batch.BatchStarted},
+ * {@code ChunkExecuted} et {@code SlowItem} au-delà de 10 ms par élément), pour aligner
+ * les chunks sur les pauses GC, verrous et I/O d'un enregistrement de production. Sans
+ * enregistrement en cours, leur coût est négligeable. En {@link PartitionStrategy#VIRTUAL},
+ * les listes découpées par la stratégie sont traitées un élément par tâche, sans
+ * {@code ChunkExecuted} ; les chunks de {@code processStream} et les plages imposées
+ * (poids, clés, fichier) en émettent toujours.</p>
+ *
  * <h2>Cas réel de production</h2>
  * <p>Ce pattern a permis de réduire un batch de réconciliation financière
  * de <strong>15 heures à 10 minutes</strong> (-95%) en production.</p>
@@ -35,7 +75,23 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Builder
-public class ParallelBatchProcessor {
+public class ParallelBatchProcessor implements AutoCloseable {
+
+    /**
+     * Taille maximale d'un chunk ajusté en streaming (borne la mémoire par chunk).
+     */
+    private static final int MAX_ADAPTIVE_STREAM_CHUNK_SIZE = 65_536;
+
+    /**
+     * Nombre de plages d'octets par worker pour {@code processFile} : assez pour équilibrer
+     * la charge si certaines plages sont plus lentes à analyser.
+     */
+    private static final int FILE_RANGES_PER_WORKER = 4;
+
+    /**
+     * Identifiants des traitements, repris par les événements JFR.
+     */
+    private static final AtomicLong BATCH_IDS = new AtomicLong();
 
     /**
      * Nombre de threads parallèles.
@@ -55,24 +111,158 @@ public class ParallelBatchProcessor {
      * Stratégie de partitionnement des données.
      * - STATIC : Partitionnement fixe
      * - DYNAMIC : Partitionnement adaptatif (work-stealing)
+     * - FORK_JOIN : Découpage récursif jusqu'à {@code chunkSize} éléments
+     * - VIRTUAL : Un thread virtuel par élément (traitements I/O-bound)
+     * - WEIGHTED : Plages de coût équilibré, les plus lourdes d'abord (voir processWeighted)
      */
     @Builder.Default
     private final PartitionStrategy strategy = PartitionStrategy.DYNAMIC;
 
+    /**
+     * Découpage paresseux en mode FORK_JOIN : une plage n'est coupée que si peu de tâches
+     * attendent déjà dans la file du thread courant. Réduit le nombre de tâches créées
+     * quand tous les threads sont occupés.
+     */
+    @Builder.Default
+    private final boolean lazySplitting = false;
+
+    /**
+     * Nombre maximum d'éléments traités simultanément en mode VIRTUAL.
+     * Protège les systèmes appelés (base de données, API) d'un afflux de requêtes :
+     * à ajuster sur la taille du pool de connexions ou le quota de l'API.
+     * En streaming, les chunks sont soumis entiers : la concurrence y est bornée par
+     * {@code maxInFlightChunks}.
+     */
+    @Builder.Default
+    private final int maxConcurrency = 256;
+
+    /**
+     * Ajustement automatique de la taille des chunks.
+     * Les premiers items servent à mesurer le coût d'un item, puis la taille est ajustée en
+     * continu pour que chaque chunk dure environ {@code targetChunkDuration} ;
+     * {@code chunkSize} est alors ignoré. Sans effet en mode FORK_JOIN et VIRTUAL.
+     */
+    @Builder.Default
+    private final boolean adaptiveChunking = false;
+
+    /**
+     * Durée visée pour un chunk en mode {@code adaptiveChunking}.
+     * Recommandation : 1 à 10 ms, assez pour amortir l'ordonnancement, assez peu pour
+     * répartir la charge.
+     */
+    @Builder.Default
+    private final Duration targetChunkDuration = Duration.ofMillis(5);
+
+    /**
+     * Nombre maximum de chunks en vol (soumis mais pas encore livrés) en mode streaming.
+     * Borne la mémoire à environ {@code maxInFlightChunks × chunkSize} éléments.
+     * Par défaut (0) : 2 × parallelism.
+     */
+    @Builder.Default
+    private final int maxInFlightChunks = 0;
+
+    /**
+     * Ordre de livraison des résultats en mode streaming.
+     * - ORDERED : ordre de la source (tampon de réordonnancement borné)
+     * - UNORDERED : ordre de complétion des chunks (latence minimale)
+     * {@code process()} retourne toujours les résultats dans l'ordre des éléments.
+     */
+    @Builder.Default
+    private final ResultOrder resultOrder = ResultOrder.ORDERED;
+
+    /**
+     * Politique de nouvelle tentative par élément (optionnelle).
+     * Un élément en échec est rejoué seul, après le délai de la politique : le worker
+     * poursuit le reste de son chunk pendant l'attente, qui n'est jamais un {@code sleep}
+     * dans le pool. S'applique à {@code process}, {@code tryProcess} et
+     * {@code processWeighted} ; pas à {@code processByKey}, où rejouer un élément plus tard
+     * romprait l'ordre par clé, ni au streaming.
+     */
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Politique de nouvelle tentative par chunk (optionnelle).
+     * Un chunk en échec est suspendu puis repris, après le délai de la politique, à partir
+     * du bloc de 64 éléments en échec : adapté aux indisponibilités d'un système appelé,
+     * qui feraient échouer tous les éléments suivants. Reçoit les exceptions que la
+     * politique par élément ne rejoue pas ; sans objet pour {@code tryProcess}, qui isole
+     * chaque élément, et pour le streaming. Le traitement doit être idempotent.
+     */
+    private final RetryPolicy chunkRetryPolicy;
+
+    /**
+     * Interrompt les threads qui traitent un chunk lorsqu'un traitement est annulé
+     * (voir {@link CancellationToken}). Sans interruption, les chunks en cours s'arrêtent
+     * au prochain bloc de 64 éléments ; à activer si un élément peut durer longtemps et
+     * réagit à l'interruption (I/O bloquantes, {@code Thread.sleep}...).
+     */
+    @Builder.Default
+    private final boolean interruptOnCancel = false;
+
+    /**
+     * Délai laissé aux tâches en cours pour se terminer lors de {@link #close()}, avant
+     * l'arrêt forcé du pool interne.
+     */
+    @Builder.Default
+    private final Duration shutdownTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Profileur alimenté par le processeur (optionnel) : items traités, durées de
+     * traitement par item et par chunk, temps CPU et allocations des workers par chunk, et tailles de chunks retenues en mode
+     * {@code adaptiveChunking}. Les durées par item ne sont pas mesurées par les méthodes
+     * sur tableaux primitifs, dont le coût par élément est du même ordre que la mesure.
+     */
+    private final BatchProfiler profiler;
+
+    /**
+     * ExecutorService fourni par l'appelant (optionnel).
+     * S'il est renseigné, le processeur l'utilise tel quel et ne l'arrête jamais :
+     * son cycle de vie reste à la charge de l'appelant. Dans ce cas,
+     * {@code parallelism} n'influence plus le pool, et la stratégie FORK_JOIN n'est
+     * appliquée que si l'executor fourni est un {@link ForkJoinPool}.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Pool interne, créé au premier appel et réutilisé jusqu'à {@link #close()}.
+     */
+    private final AtomicReference<ExecutorService> ownedExecutor = new AtomicReference<>();
+
+    /**
+     * Timer des nouvelles tentatives et des échéances, créé à la première exécution qui
+     * en a besoin.
+     */
+    private final AtomicReference<ScheduledExecutorService> scheduler = new AtomicReference<>();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final Object lifecycleLock = new Object();
+
     /**
      * Traite une liste d'éléments en parallèle.
      *
-     * <p>Les éléments sont découpés en chunks, chaque chunk est traité dans un thread séparé,
-     * puis les résultats sont agrégés.</p>
+     * <p>Les éléments sont découpés en plages d'index (chunks), chaque chunk est traité dans
+     * un thread séparé et écrit ses résultats directement dans un tableau de sortie
+     * pré-dimensionné, à la position de chaque élément : aucune liste intermédiaire n'est
+     * allouée. Les chunks sont attendus dans l'ordre de complétion, si bien qu'une erreur
+     * est détectée dès qu'elle survient.</p>
+     *
+     * <p>Fail-fast : au premier élément en échec, les chunks restants sont annulés et le
+     * traitement s'arrête. Pour poursuivre malgré les échecs, voir
+     * {@link #tryProcess(List, Function)}. Avec une politique {@code retryPolicy}, un
+     * élément n'est en échec qu'une fois ses tentatives épuisées.</p>
      *
      * @param items Liste d'éléments à traiter
      * @param processor Fonction de traitement d'un élément (doit être thread-safe)
      * @param <T> Type des éléments en entrée
      * @param <R> Type des résultats
-     * @return Liste des résultats (ordre non garanti)
+     * @return Liste des résultats, dans l'ordre des éléments, de taille fixe
+     *         (modifiable par {@code set} mais pas redimensionnable)
      * @throws InterruptedException si le traitement est interrompu
      * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
      */
+    @SuppressWarnings("unchecked")
     public <T, R> List<R> process(List<T> items, Function<T, R> processor)
             throws InterruptedException, ExecutionException {
 
@@ -81,61 +271,1148 @@ public class ParallelBatchProcessor {
             return new ArrayList<>();
         }
 
-        log.info("Starting parallel batch processing: {} items, parallelism={}, chunkSize={}",
-                items.size(), parallelism, chunkSize);
+        // Tableau de sortie unique : chaque chunk écrit dans ses propres cases
+        List<T> indexed = randomAccess(items);
+        Object[] results = new Object[indexed.size()];
+        long batchId = BATCH_IDS.incrementAndGet();
+        ItemFunction<T, R> timed = timed(processor, batchId);
+        RunControl control = newRunControl(null);
+        runChunks(batchId, indexed.size(), null, control,
+                (from, to) -> processChunk(indexed, from, to, timed, results, control));
+
+        return Arrays.asList((R[]) results);
+    }
+
+    /**
+     * Variante de {@link #process(List, Function)} avec point de reprise.
+     *
+     * <p>Chaque bloc d'éléments terminé est journalisé dans le fichier du
+     * {@link Checkpoint} (écriture et {@code fsync} asynchrones, par lots). Si le traitement
+     * échoue ou si la JVM s'arrête, un nouvel appel avec le même point de reprise et la
+     * même liste ne traite que les éléments non journalisés ; les résultats des autres sont
+     * restitués depuis le journal (ou {@code null} sans {@link ResultCodec}). Le journal
+     * est supprimé à la fin d'un traitement réussi.</p>
+     *
+     * <p>Les éléments restants sont découpés en chunks de {@code chunkSize}, quelle que soit
+     * la stratégie. Le traitement doit être idempotent : les blocs de la dernière période
+     * d'écriture peuvent être retraités après un arrêt brutal.</p>
+     *
+     * <pre>{@code
+     * Checkpoint<Result> checkpoint = Checkpoint.at(Path.of("reconciliation.ckpt"), RESULT_CODEC);
+     * List<Result> results = processor.process(entries, this::reconcile, checkpoint);
+     * }</pre>
+     *
+     * @param items Liste d'éléments à traiter (identique d'une reprise à l'autre)
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe)
+     * @param checkpoint Point de reprise
+     * @param <T> Type des éléments en entrée
+     * @param <R> Type des résultats
+     * @return Liste des résultats, dans l'ordre des éléments, de taille fixe
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé, ou si le journal
+     *         concerne une autre liste
+     * @throws java.io.UncheckedIOException si le journal ne peut pas être lu ou écrit
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> List<R> process(List<T> items, Function<T, R> processor, Checkpoint<R> checkpoint)
+            throws InterruptedException, ExecutionException {
+
+        if (items == null || items.isEmpty()) {
+            log.warn("Empty or null items list provided");
+            return new ArrayList<>();
+        }
+
+        List<T> indexed = randomAccess(items);
+        Object[] results = new Object[indexed.size()];
+        BitSet done = checkpoint.open(indexed.size(), results);
+        boolean completed = false;
+        try {
+            List<IndexRange> pending = IndexRange.split(done, indexed.size(), chunkSize);
+            int pendingItems = indexed.size() - done.cardinality();
+            if (pendingItems > 0) {
+                long batchId = BATCH_IDS.incrementAndGet();
+                ItemFunction<T, R> timed = timed(processor, batchId);
+                RunControl control = newRunControl(null);
+                runChunks(batchId, pendingItems, pending, control,
+                        (from, to) -> processChunk(indexed, from, to, timed, results, control, checkpoint));
+            } else {
+                log.info("All {} items restored from checkpoint {}", indexed.size(), checkpoint.getFile());
+            }
+            completed = true;
+        } finally {
+            checkpoint.close(completed);
+        }
+
+        return Arrays.asList((R[]) results);
+    }
+
+    /**
+     * Traite une liste d'éléments en parallèle en isolant les échecs.
+     *
+     * <p>Contrairement à {@link #process(List, Function)}, qui s'arrête au premier échec
+     * (fail-fast), une exception levée pour un élément est capturée et enregistrée avec son
+     * index ; le traitement continue pour tous les autres éléments. Seules les
+     * {@link Error} (ex : OutOfMemoryError) interrompent le batch. Avec une politique
+     * {@code retryPolicy}, seul l'échec de la dernière tentative est enregistré.</p>
+     *
+     * @param items Liste d'éléments à traiter
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe)
+     * @param <T> Type des éléments en entrée
+     * @param <R> Type des résultats
+     * @return Résultats des éléments réussis et échecs des autres
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une {@link Error} survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    public <T, R> BatchResult<R> tryProcess(List<T> items, Function<T, R> processor)
+            throws InterruptedException, ExecutionException {
+        return tryProcess(items, processor, null);
+    }
+
+    /**
+     * Variante annulable de {@link #tryProcess(List, Function)}.
+     *
+     * <p>Dès l'annulation du jeton ou à son échéance, plus aucun élément n'est distribué :
+     * les chunks en cours s'arrêtent au prochain bloc d'éléments, ou sont interrompus si
+     * {@code interruptOnCancel} est activé. Le traitement retourne alors, sans exception,
+     * les résultats obtenus jusque-là ; {@link BatchResult#isComplete()} indique si tous les
+     * éléments ont été traités. Un élément dont le traitement échoue à cause de
+     * l'interruption est compté comme non traité, pas comme un échec.</p>
+     *
+     * @param items Liste d'éléments à traiter
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe)
+     * @param token Jeton d'annulation ({@code null} : traitement non annulable)
+     * @param <T> Type des éléments en entrée
+     * @param <R> Type des résultats
+     * @return Résultats des éléments réussis, échecs, et éléments non traités
+     * @throws InterruptedException si le thread appelant est interrompu
+     * @throws ExecutionException si une {@link Error} survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> BatchResult<R> tryProcess(List<T> items, Function<T, R> processor, CancellationToken token)
+            throws InterruptedException, ExecutionException {
+
+        if (items == null || items.isEmpty()) {
+            log.warn("Empty or null items list provided");
+            return new BatchResult<>(new ArrayList<>(), List.of());
+        }
+
+        List<T> indexed = randomAccess(items);
+        Object[] results = new Object[indexed.size()];
+        Queue<ItemFailure> failures = new ConcurrentLinkedQueue<>();
+        boolean[] processed = token != null ? new boolean[indexed.size()] : null;
+        long batchId = BATCH_IDS.incrementAndGet();
+        ItemFunction<T, R> timed = timed(processor, batchId);
+        RunControl control = newRunControl(token);
+        runChunks(batchId, indexed.size(), null, control,
+                (from, to) -> processChunk(indexed, from, to, timed, results, control, failures, processed));
+
+        BatchResult<R> batchResult = new BatchResult<>(Arrays.asList((R[]) results), List.copyOf(failures),
+                unprocessed(processed));
+        if (!batchResult.isComplete()) {
+            log.warn("Batch processing cancelled: {} items processed, {} not processed",
+                    items.size() - batchResult.getUnprocessedCount(), batchResult.getUnprocessedCount());
+            if (profiler != null) {
+                profiler.addProcessedItems(items.size() - batchResult.getUnprocessedCount());
+            }
+        }
+        if (batchResult.hasFailures()) {
+            log.warn("Batch processing completed with {} failed items out of {}",
+                    batchResult.getFailureCount(), items.size());
+        }
+        return batchResult;
+    }
+
+    /**
+     * Traite un tableau d'{@code int} en parallèle, sans aucun boxing.
+     *
+     * @param items Éléments à traiter
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe)
+     * @return Résultats, à l'index de chaque élément
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    public int[] processInts(int[] items, IntUnaryOperator processor)
+            throws InterruptedException, ExecutionException {
+
+        if (items == null || items.length == 0) {
+            log.warn("Empty or null items array provided");
+            return new int[0];
+        }
+
+        int[] results = new int[items.length];
+        runChunks(items.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = processor.applyAsInt(items[i]);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Traite un tableau de {@code long} en parallèle, sans aucun boxing.
+     *
+     * @param items Éléments à traiter
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe)
+     * @return Résultats, à l'index de chaque élément
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    public long[] processLongs(long[] items, LongUnaryOperator processor)
+            throws InterruptedException, ExecutionException {
+
+        if (items == null || items.length == 0) {
+            log.warn("Empty or null items array provided");
+            return new long[0];
+        }
+
+        long[] results = new long[items.length];
+        runChunks(items.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = processor.applyAsLong(items[i]);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Traite un tableau de {@code double} en parallèle, sans aucun boxing.
+     *
+     * @param items Éléments à traiter
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe)
+     * @return Résultats, à l'index de chaque élément
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    public double[] processDoubles(double[] items, DoubleUnaryOperator processor)
+            throws InterruptedException, ExecutionException {
+
+        if (items == null || items.length == 0) {
+            log.warn("Empty or null items array provided");
+            return new double[0];
+        }
+
+        double[] results = new double[items.length];
+        runChunks(items.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = processor.applyAsDouble(items[i]);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Transforme un tableau de {@code long} (ex : identifiants de comptes) en tableau de
+     * {@code double} (ex : montants) en parallèle, sans aucun boxing.
+     *
+     * @param items Éléments à traiter
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe)
+     * @return Résultats, à l'index de chaque élément
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    public double[] processLongsToDoubles(long[] items, LongToDoubleFunction processor)
+            throws InterruptedException, ExecutionException {
+
+        if (items == null || items.length == 0) {
+            log.warn("Empty or null items array provided");
+            return new double[0];
+        }
+
+        double[] results = new double[items.length];
+        runChunks(items.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = processor.applyAsDouble(items[i]);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Traite en parallèle une liste d'éléments de coûts hétérogènes.
+     *
+     * <p>Au lieu de découper par nombre d'éléments, la liste est découpée en plages contiguës
+     * de coût total équilibré d'après {@code costEstimator} ; un élément très coûteux forme
+     * sa propre plage. Les plages sont soumises de la plus coûteuse à la moins coûteuse
+     * (LPT), si bien que les éléments lourds ne se retrouvent pas en queue d'exécution.
+     * S'applique quelle que soit la stratégie ; avec {@link PartitionStrategy#WEIGHTED},
+     * le pool est une file FIFO qui respecte exactement cet ordre.</p>
+     *
+     * <pre>{@code
+     * List<Result> results = processor.processWeighted(invoices, Invoice::getLineCount, this::process);
+     * }</pre>
+     *
+     * @param items Liste d'éléments à traiter
+     * @param costEstimator Coût relatif estimé d'un élément (doit être peu coûteux)
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe)
+     * @param <T> Type des éléments en entrée
+     * @param <R> Type des résultats
+     * @return Liste des résultats, dans l'ordre des éléments, de taille fixe
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> List<R> processWeighted(List<T> items, ToLongFunction<? super T> costEstimator,
+                                          Function<T, R> processor)
+            throws InterruptedException, ExecutionException {
+
+        if (items == null || items.isEmpty()) {
+            log.warn("Empty or null items list provided");
+            return new ArrayList<>();
+        }
+
+        List<T> indexed = randomAccess(items);
+        List<IndexRange> partitions = WeightedPartitioner.partition(indexed, costEstimator, parallelism);
+        log.debug("Weighted partitioning: {} partitions", partitions.size());
+
+        Object[] results = new Object[indexed.size()];
+        long batchId = BATCH_IDS.incrementAndGet();
+        ItemFunction<T, R> timed = timed(processor, batchId);
+        RunControl control = newRunControl(null);
+        runChunks(batchId, indexed.size(), partitions, control,
+                (from, to) -> processChunk(indexed, from, to, timed, results, control));
+
+        return Arrays.asList((R[]) results);
+    }
+
+    /**
+     * Traite en parallèle une liste d'éléments en garantissant l'ordre par clé.
+     *
+     * <p>Les éléments partageant une même clé (ex : un compte) sont traités séquentiellement,
+     * par la même tâche et dans l'ordre de la liste ; des clés différentes sont traitées en
+     * parallèle. Aucun verrou externe n'est nécessaire pour sérialiser les éléments d'une clé.
+     * Les clés sont réparties par hachage sur {@code parallelism × 4} voies ; une clé plus
+     * volumineuse qu'une voie moyenne reçoit une voie dédiée, soumise en priorité, pour ne
+     * pas retarder les autres clés.</p>
+     *
+     * <pre>{@code
+     * List<Result> results = processor.processByKey(entries, LedgerEntry::getAccountId, this::reconcile);
+     * }</pre>
+     *
+     * @param items Liste d'éléments à traiter
+     * @param keyExtractor Clé d'ordonnancement d'un élément ({@code equals}/{@code hashCode} cohérents)
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe entre clés différentes)
+     * @param <T> Type des éléments en entrée
+     * @param <K> Type des clés
+     * @param <R> Type des résultats
+     * @return Liste des résultats, dans l'ordre des éléments, de taille fixe
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    @SuppressWarnings("unchecked")
+    public <T, K, R> List<R> processByKey(List<T> items, Function<? super T, K> keyExtractor,
+                                          Function<T, R> processor)
+            throws InterruptedException, ExecutionException {
+
+        if (items == null || items.isEmpty()) {
+            log.warn("Empty or null items list provided");
+            return new ArrayList<>();
+        }
+
+        List<T> indexed = randomAccess(items);
+        KeyAffinityPartitioner.KeyLanes keyLanes = KeyAffinityPartitioner.partition(indexed, keyExtractor, parallelism);
+        log.debug("Key affinity partitioning: {} lanes, {} hot keys with dedicated lanes",
+                keyLanes.lanes().size(), keyLanes.hotKeys());
+
+        int[] order = keyLanes.order();
+        Object[] results = new Object[indexed.size()];
+        long batchId = BATCH_IDS.incrementAndGet();
+        ItemFunction<T, R> timed = timed(processor, batchId);
+        // Index de tâche : position dans l'ordre des voies ; événements JFR en index d'élément
+        ChunkItems laneItems = new ChunkItems() {
+            @Override
+            public long firstItem(int from) {
+                return order[from];
+            }
+        };
+        runChunks(batchId, indexed.size(), keyLanes.lanes(), newRunControl(null), laneItems, (from, to) -> {
+            for (int j = from; j < to; j++) {
+                int index = order[j];
+                results[index] = timed.apply(index, indexed.get(index));
+            }
+        });
+
+        return Arrays.asList((R[]) results);
+    }
+
+    /**
+     * Analyse en parallèle un fichier projeté en mémoire, sans liste de lignes préalable.
+     *
+     * <p>Le fichier est découpé en {@code parallelism × 4} plages d'octets alignées sur les
+     * enregistrements ; chaque plage est un chunk, projetée et analysée par un worker.
+     * Le parser reçoit chaque enregistrement sous forme de {@link ByteBuffer}, sans copie
+     * (voir {@link MappedFileSource#parse(ByteRange, Function)}).</p>
+     *
+     * <pre>{@code
+     * try (MappedFileSource file = MappedFileSource.lines(Path.of("transactions.csv"))) {
+     *     List<Transaction> transactions = processor.processFile(file, Transaction::parse);
+     * }
+     * }</pre>
+     *
+     * @param file Fichier à analyser
+     * @param parser Analyse d'un enregistrement (doit être thread-safe)
+     * @param <R> Type des résultats
+     * @return Un résultat par enregistrement, dans l'ordre du fichier
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    @SuppressWarnings("unchecked")
+    public <R> List<R> processFile(MappedFileSource file, Function<? super ByteBuffer, ? extends R> parser)
+            throws InterruptedException, ExecutionException {
+
+        List<ByteRange> ranges = file.split(parallelism * FILE_RANGES_PER_WORKER);
+        if (ranges.isEmpty()) {
+            log.warn("Empty file provided: {}", file.getPath());
+            return new ArrayList<>();
+        }
+        log.debug("File {} split into {} byte ranges", file.getPath(), ranges.size());
+
+        // Un slot par plage : le nombre d'enregistrements n'est connu qu'après analyse
+        Object[] rangeResults = new Object[ranges.size()];
+        long batchId = BATCH_IDS.incrementAndGet();
+        // Position d'un enregistrement dans le fichier inconnue avant la fin de l'analyse
+        ItemFunction<ByteBuffer, R> timed = timed(parser::apply, batchId);
+        Function<ByteBuffer, R> unindexed = record -> timed.apply(-1, record);
+        // Éléments comptés à la fin de chaque plage : profileur et événements JFR en
+        // enregistrements, et non en plages
+        int[] rangeRecords = new int[ranges.size()];
+        ChunkItems records = new ChunkItems() {
+            @Override
+            public long total(int size) {
+                return -1;
+            }
+
+            @Override
+            public long firstItem(int from) {
+                return -1;
+            }
+
+            @Override
+            public int size(int from, int to) {
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    count += rangeRecords[i];
+                }
+                return count;
+            }
+        };
+        runChunks(batchId, ranges.size(), IndexRange.split(ranges.size(), 1), newRunControl(null), records,
+                (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        List<R> parsed = file.parse(ranges.get(i), unindexed);
+                        rangeResults[i] = parsed;
+                        rangeRecords[i] = parsed.size();
+                    }
+                });
+
+        int total = 0;
+        for (int count : rangeRecords) {
+            total += count;
+        }
+        if (profiler != null) {
+            profiler.addProcessedItems(total);
+        }
+        log.info("File {} parsed: {} records", file.getPath(), total);
+        List<R> results = new ArrayList<>(total);
+        for (Object rangeResult : rangeResults) {
+            results.addAll((List<R>) rangeResult);
+        }
+        return results;
+    }
+
+    /**
+     * Traite en parallèle un flux d'éléments de taille quelconque, sans le matérialiser.
+     *
+     * <p>Les chunks sont tirés de la source à la demande. Les résultats de chaque chunk
+     * sont transmis au {@code sink} dès qu'ils sont disponibles, depuis le thread appelant :
+     * le sink n'a pas besoin d'être thread-safe. L'ordre de livraison dépend de
+     * {@code resultOrder} :</p>
+     * <ul>
+     *     <li>{@link ResultOrder#UNORDERED} : chaque chunk est livré dès sa complétion ;
+     *     au plus {@code maxInFlightChunks} chunks sont en cours.</li>
+     *     <li>{@link ResultOrder#ORDERED} : les chunks sont livrés dans l'ordre de la source ;
+     *     au plus {@code maxInFlightChunks} chunks sont en cours ou en attente dans le tampon
+     *     de réordonnancement.</li>
+     * </ul>
+     * <p>Dans les deux cas, la mémoire consommée reste constante quelle que soit la taille
+     * de la source.</p>
+     *
+     * <pre>{@code
+     * long count = processor.processStream(repository.streamAll(), this::reconcile, writer::writeAll);
+     * }</pre>
+     *
+     * @param source Source des éléments, consommée par le thread appelant
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe)
+     * @param sink Consommateur des résultats, appelé une fois par chunk
+     * @param <T> Type des éléments en entrée
+     * @param <R> Type des résultats
+     * @return Nombre d'éléments traités
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    public <T, R> long processStream(Iterator<? extends T> source, Function<T, R> processor,
+                                     Consumer<? super List<R>> sink)
+            throws InterruptedException, ExecutionException {
+        return processStream(source, processor, sink, null);
+    }
+
+    /**
+     * Variante annulable de {@link #processStream(Iterator, Function, Consumer)}.
+     *
+     * <p>Dès l'annulation du jeton ou à son échéance, plus aucun chunk n'est tiré de la
+     * source. Les chunks déjà en cours se terminent et sont livrés au {@code sink} (au plus
+     * {@code maxInFlightChunks} chunks ; {@code interruptOnCancel} ne s'applique pas aux
+     * flux), puis le traitement retourne sans exception. Le nombre retourné est alors
+     * exactement le nombre d'éléments tirés de la source : un appel ultérieur avec le même
+     * itérateur reprend là où le traitement s'est arrêté.</p>
+     *
+     * <pre>{@code
+     * CancellationToken window = CancellationToken.withDeadline(Duration.ofHours(2));
+     * long done = processor.processStream(cursor, this::reconcile, writer::writeAll, window);
+     * if (cursor.hasNext()) {
+     *     checkpoint.save(offset + done);
+     * }
+     * }</pre>
+     *
+     * @param source Source des éléments, consommée par le thread appelant
+     * @param processor Fonction de traitement d'un élément (doit être thread-safe)
+     * @param sink Consommateur des résultats, appelé une fois par chunk
+     * @param token Jeton d'annulation ({@code null} : traitement non annulable)
+     * @param <T> Type des éléments en entrée
+     * @param <R> Type des résultats
+     * @return Nombre d'éléments traités
+     * @throws InterruptedException si le thread appelant est interrompu
+     * @throws ExecutionException si une erreur survient pendant le traitement
+     * @throws IllegalStateException si le processeur a été fermé
+     */
+    public <T, R> long processStream(Iterator<? extends T> source, Function<T, R> processor,
+                                     Consumer<? super List<R>> sink, CancellationToken token)
+            throws InterruptedException, ExecutionException {
+
+        int inFlightLimit = inFlightLimit();
+        boolean ordered = resultOrder == ResultOrder.ORDERED;
+        log.info("Starting streaming batch processing: parallelism={}, chunkSize={}, maxInFlightChunks={}, order={}",
+                parallelism, chunkSize, inFlightLimit, resultOrder);
 
         long startTime = System.currentTimeMillis();
+        long batchId = BATCH_IDS.incrementAndGet();
+        BatchStartedEvent.emit(batchId, -1, chunkSize, parallelism, strategy);
+        CompletionService<ChunkResult<R>> completion = new ExecutorCompletionService<>(acquireExecutor());
+        ItemFunction<T, R> timed = timed(processor, batchId);
+        ChunkSizeTuner tuner = adaptiveChunking ? newChunkSizeTuner(MAX_ADAPTIVE_STREAM_CHUNK_SIZE) : null;
+
+        List<Future<ChunkResult<R>>> running = new ArrayList<>(inFlightLimit);
+        Map<Long, List<R>> reorderBuffer = new HashMap<>();
+        long submitted = 0;
+        long submittedItems = 0;
+        long delivered = 0;
+        long itemsProcessed = 0;
+        boolean completed = false;
+
+        try {
+            while (true) {
+                // Admission : en mode ordonné, les chunks en attente dans le tampon comptent
+                long undelivered = ordered ? submitted - delivered : running.size();
+                while (undelivered < inFlightLimit && !cancelled(token) && source.hasNext()) {
+                    int size = tuner != null ? tuner.chunkSize() : chunkSize;
+                    List<T> chunk = nextChunk(source, size);
+                    running.add(submitChunk(completion, batchId, submitted++, submittedItems, chunk, timed, tuner));
+                    submittedItems += chunk.size();
+                    undelivered++;
+                }
+                if (running.isEmpty()) {
+                    break;
+                }
+
+                Future<ChunkResult<R>> done = completion.take();
+                running.remove(done);
+                ChunkResult<R> chunkResult = done.get();
+
+                if (!ordered) {
+                    sink.accept(chunkResult.results());
+                    itemsProcessed += chunkResult.results().size();
+                    delivered++;
+                    continue;
+                }
+                reorderBuffer.put(chunkResult.index(), chunkResult.results());
+                List<R> next;
+                while ((next = reorderBuffer.remove(delivered)) != null) {
+                    sink.accept(next);
+                    itemsProcessed += next.size();
+                    delivered++;
+                }
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                running.forEach(future -> future.cancel(true));
+            }
+            if (tuner != null) {
+                reportChunkSizes(tuner);
+            }
+        }
+
+        if (profiler != null) {
+            profiler.addProcessedItems(itemsProcessed);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("Streaming batch processing completed: {} items in {}ms", itemsProcessed, duration);
+
+        return itemsProcessed;
+    }
+
+    /**
+     * Variante de {@link #processStream(Iterator, Function, Consumer)} pour un {@link Stream}.
+     * Le stream est consommé séquentiellement mais n'est pas fermé.
+     */
+    public <T, R> long processStream(Stream<? extends T> source, Function<T, R> processor,
+                                     Consumer<? super List<R>> sink)
+            throws InterruptedException, ExecutionException {
+        return processStream(source.iterator(), processor, sink, null);
+    }
+
+    /**
+     * Variante annulable de {@link #processStream(Stream, Function, Consumer)}
+     * (voir {@link #processStream(Iterator, Function, Consumer, CancellationToken)}).
+     */
+    public <T, R> long processStream(Stream<? extends T> source, Function<T, R> processor,
+                                     Consumer<? super List<R>> sink, CancellationToken token)
+            throws InterruptedException, ExecutionException {
+        return processStream(source.iterator(), processor, sink, token);
+    }
+
+    /**
+     * Variante de {@link #processStream(Iterator, Function, Consumer)} pour un {@link Spliterator}.
+     */
+    public <T, R> long processStream(Spliterator<? extends T> source, Function<T, R> processor,
+                                     Consumer<? super List<R>> sink)
+            throws InterruptedException, ExecutionException {
+        return processStream(Spliterators.iterator(source), processor, sink, null);
+    }
+
+    /**
+     * Variante annulable de {@link #processStream(Spliterator, Function, Consumer)}
+     * (voir {@link #processStream(Iterator, Function, Consumer, CancellationToken)}).
+     */
+    public <T, R> long processStream(Spliterator<? extends T> source, Function<T, R> processor,
+                                     Consumer<? super List<R>> sink, CancellationToken token)
+            throws InterruptedException, ExecutionException {
+        return processStream(Spliterators.iterator(source), processor, sink, token);
+    }
+
+    /**
+     * Arrête le pool interne après avoir laissé les tâches en cours se terminer, au plus
+     * {@code shutdownTimeout}.
+     *
+     * <p>Un ExecutorService fourni via le builder n'est jamais arrêté. Après fermeture,
+     * tout nouvel appel à {@code process} lève une {@link IllegalStateException}.
+     * L'appel est idempotent.</p>
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        ExecutorService owned;
+        ScheduledExecutorService timer;
+        synchronized (lifecycleLock) {
+            owned = ownedExecutor.getAndSet(null);
+            timer = scheduler.getAndSet(null);
+        }
+        if (timer != null) {
+            // Les tentatives déjà planifiées partent encore : rejetées par un pool arrêté,
+            // elles terminent l'exécution en échec au lieu de la laisser en attente
+            timer.shutdown();
+        }
+        if (owned == null) {
+            return;
+        }
+        try {
+            shutdownExecutor(owned);
+        } catch (InterruptedException e) {
+            owned.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.debug("ParallelBatchProcessor closed");
+    }
+
+    /**
+     * Retourne l'ExecutorService à utiliser : celui fourni par l'appelant, sinon
+     * le pool interne (créé au premier appel).
+     */
+    private ExecutorService acquireExecutor() {
+        if (executor != null) {
+            if (closed.get()) {
+                throw new IllegalStateException("ParallelBatchProcessor is closed");
+            }
+            return executor;
+        }
+        synchronized (lifecycleLock) {
+            if (closed.get()) {
+                throw new IllegalStateException("ParallelBatchProcessor is closed");
+            }
+            ExecutorService current = ownedExecutor.get();
+            if (current == null) {
+                current = createExecutor();
+                ownedExecutor.set(current);
+                log.debug("Created {} executor with parallelism={}", strategy, parallelism);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Retourne le timer des nouvelles tentatives et des échéances, créé au premier appel.
+     */
+    private ScheduledExecutorService acquireScheduler() {
+        synchronized (lifecycleLock) {
+            if (closed.get()) {
+                throw new IllegalStateException("ParallelBatchProcessor is closed");
+            }
+            ScheduledExecutorService current = scheduler.get();
+            if (current == null) {
+                current = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "batch-scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                scheduler.set(current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Crée l'état d'une exécution, avec le timer si une politique de nouvelle tentative ou
+     * une échéance l'exige.
+     *
+     * @param token Jeton d'annulation ({@code null} si le traitement n'est pas annulable)
+     */
+    private RunControl newRunControl(CancellationToken token) {
+        ExecutorService executor = acquireExecutor();
+        boolean timed = retryPolicy != null || chunkRetryPolicy != null || (token != null && token.hasDeadline());
+        return new RunControl(executor, timed ? acquireScheduler() : null, chunkRetryPolicy,
+                token, interruptOnCancel);
+    }
+
+    /**
+     * Exécute {@code task} sur toutes les plages de {@code [0, size)}, selon la stratégie :
+     * chunks fixes soumis au pool, ou découpage récursif en mode FORK_JOIN.
+     *
+     * <p>Fail-fast : au premier échec, les chunks pas encore démarrés sont annulés et les
+     * chunks en cours s'arrêtent au prochain bloc d'éléments ({@link RunControl}).</p>
+     */
+    private void runChunks(int size, ChunkTask task) throws InterruptedException, ExecutionException {
+        runChunks(BATCH_IDS.incrementAndGet(), size, null, newRunControl(null), task);
+    }
+
+    /**
+     * Variante de {@link #runChunks(int, ChunkTask)} : si {@code ranges} est fourni, ces
+     * plages sont soumises telles quelles, dans leur ordre, quelle que soit la stratégie.
+     * Le traitement se termine une fois les nouvelles tentatives de {@code control}
+     * terminées.
+     *
+     * @param batchId Identifiant du traitement dans les événements JFR
+     */
+    private void runChunks(long batchId, int size, List<IndexRange> ranges, RunControl control, ChunkTask task)
+            throws InterruptedException, ExecutionException {
+        runChunks(batchId, size, ranges, control, ChunkItems.INDEX, task);
+    }
+
+    /**
+     * Variante de {@link #runChunks(long, int, List, RunControl, ChunkTask)} dont les index
+     * de tâche ne sont pas des éléments : {@code items} donne les éléments remontés au
+     * profileur, dans les journaux et dans les événements JFR.
+     */
+    private void runChunks(long batchId, int size, List<IndexRange> ranges, RunControl control,
+                           ChunkItems items, ChunkTask task)
+            throws InterruptedException, ExecutionException {
+
+        long total = items.total(size);
+        log.info("Starting parallel batch processing: {} tasks, {} items, parallelism={}, chunkSize={}",
+                size, total, parallelism, chunkSize);
 
-        ExecutorService executor = createExecutor();
+        long startTime = System.currentTimeMillis();
+        BatchStartedEvent.emit(batchId, total, chunkSize, parallelism, strategy);
 
+        ExecutorService executor = acquireExecutor();
+        // Un élément par tâche en VIRTUAL : ni événement ni mesure de chunk, seulement
+        // ceux des éléments (durée au profileur, SlowItem)
+        boolean perItem = ranges == null && strategy == PartitionStrategy.VIRTUAL;
+        ChunkTask guarded = perItem ? control.guard(task) : recorded(timed(control.guard(task)), batchId, items);
+        boolean completed = false;
+        control.start();
         try {
-            // Découpe en chunks
-            List<List<T>> chunks = partitionList(items, chunkSize);
-            log.debug("Partitioned into {} chunks", chunks.size());
+            if (ranges != null) {
+                runSubmittedChunks(executor, ranges, guarded);
+            } else if (strategy == PartitionStrategy.VIRTUAL) {
+                runPerItem(executor, size, control, guarded);
+            } else if (strategy == PartitionStrategy.FORK_JOIN && executor instanceof ForkJoinPool pool) {
+                runForkJoin(pool, size, guarded);
+            } else if (adaptiveChunking) {
+                runAdaptiveChunks(executor, size, guarded);
+            } else {
+                runSubmittedChunks(executor, IndexRange.split(size, chunkSize), guarded);
+            }
+            control.awaitRetries();
+            completed = true;
+        } finally {
+            if (!completed) {
+                // Fail-fast : les tâches encore en cours s'arrêtent au prochain bloc
+                control.stop();
+            }
+            control.finish();
+        }
+        if (control.failure() != null) {
+            throw new ExecutionException(control.failure());
+        }
+        if (control.isCancelled()) {
+            // Nombre d'éléments traités connu du seul appelant
+            log.info("Batch processing cancelled after {}ms", System.currentTimeMillis() - startTime);
+            return;
+        }
+        long duration = System.currentTimeMillis() - startTime;
+        if (total < 0) {
+            // Éléments comptés par l'appelant
+            log.info("Batch processing completed: {} tasks in {}ms", size, duration);
+            return;
+        }
+        if (profiler != null) {
+            profiler.addProcessedItems(total);
+        }
+
+        double throughput = total / (duration / 1000.0);
+
+        log.info("Batch processing completed: {} items in {}ms ({} items/s)",
+                total, duration, String.format("%.2f", throughput));
+    }
+
+    /**
+     * Soumet une tâche par plage, dans l'ordre de la liste, et attend leur fin dans l'ordre
+     * de complétion.
+     */
+    private void runSubmittedChunks(ExecutorService executor, List<IndexRange> ranges, ChunkTask task)
+            throws InterruptedException, ExecutionException {
+
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        log.debug("Partitioned into {} chunks", ranges.size());
+
+        // Soumet chaque plage d'index comme tâche
+        List<Future<Void>> futures = new ArrayList<>(ranges.size());
+        for (IndexRange range : ranges) {
+            futures.add(completion.submit(() -> task.run(range.from(), range.to()), null));
+        }
 
-            // Soumet chaque chunk comme tâche
-            List<Future<List<R>>> futures = new ArrayList<>();
-            for (List<T> chunk : chunks) {
-                futures.add(executor.submit(() -> processChunk(chunk, processor)));
+        // Attend les chunks dans l'ordre de complétion
+        boolean completed = false;
+        try {
+            for (int i = 0; i < ranges.size(); i++) {
+                completion.take().get();
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                futures.forEach(future -> future.cancel(true));
             }
+        }
+    }
+
+    /**
+     * Traite {@code [0, size)} avec des chunks de taille ajustée en continu.
+     *
+     * <p>{@code parallelism} workers tirent tour à tour la plage suivante sur un curseur
+     * partagé, avec la taille courante du {@link ChunkSizeTuner}, et lui remontent la durée
+     * de chaque chunk ainsi que le temps passé à le réclamer depuis la fin du précédent
+     * (curseur partagé, enregistrement de la mesure). Les chunks n'étant découpés qu'au moment où un worker les réclame,
+     * chaque nouvelle mesure profite immédiatement au chunk suivant.</p>
+     */
+    private void runAdaptiveChunks(ExecutorService executor, int size, ChunkTask task)
+            throws InterruptedException, ExecutionException {
+
+        // Au moins 4 chunks par worker pour conserver l'équilibrage de charge
+        ChunkSizeTuner tuner = newChunkSizeTuner(Math.max(1, size / (4 * parallelism)));
+        AtomicLong cursor = new AtomicLong();
+        int workers = Math.min(parallelism, (size + ChunkSizeTuner.SAMPLE_SIZE - 1) / ChunkSizeTuner.SAMPLE_SIZE);
+
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            futures.add(completion.submit(() -> {
+                long claimStart = System.nanoTime();
+                try {
+                    while (true) {
+                        int chunk = tuner.chunkSize();
+                        long from = cursor.getAndAdd(chunk);
+                        if (from >= size) {
+                            break;
+                        }
+                        int start = (int) from;
+                        int end = (int) Math.min(from + chunk, size);
+                        long chunkStart = System.nanoTime();
+                        tuner.recordDispatchOverhead(chunkStart - claimStart);
+                        task.run(start, end);
+                        long chunkEnd = System.nanoTime();
+                        tuner.recordChunk(end - start, chunkEnd - chunkStart);
+                        claimStart = chunkEnd;
+                    }
+                } catch (RuntimeException | Error e) {
+                    // Les autres workers s'arrêtent au prochain chunk
+                    cursor.set(size);
+                    throw e;
+                }
+            }, null));
+        }
 
-            // Collecte les résultats
-            List<R> results = new ArrayList<>();
-            for (Future<List<R>> future : futures) {
-                results.addAll(future.get());
+        boolean completed = false;
+        try {
+            for (int i = 0; i < workers; i++) {
+                completion.take().get();
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                cursor.set(size);
+                futures.forEach(future -> future.cancel(true));
             }
+            reportChunkSizes(tuner);
+        }
+    }
 
-            long duration = System.currentTimeMillis() - startTime;
-            double throughput = items.size() / (duration / 1000.0);
+    /**
+     * Traite {@code [0, size)} par découpage récursif sur le pool Fork/Join.
+     */
+    private void runForkJoin(ForkJoinPool pool, int size, ChunkTask task)
+            throws InterruptedException, ExecutionException {
 
-            log.info("Batch processing completed: {} items in {}ms ({} items/s)",
-                    items.size(), duration, String.format("%.2f", throughput));
+        log.debug("Fork/join processing: threshold={}, lazySplitting={}", chunkSize, lazySplitting);
+        ForkJoinTask<Void> root = pool.submit(new ForkJoinChunkTask(task, 0, size, chunkSize, lazySplitting));
+        try {
+            root.get();
+        } catch (InterruptedException e) {
+            root.cancel(true);
+            throw e;
+        }
+    }
 
-            return results;
+    /**
+     * Soumet une tâche par élément, avec au plus {@code maxConcurrency} éléments en cours.
+     *
+     * <p>Le thread appelant est bloqué tant que la limite est atteinte, ce qui évite de créer
+     * un thread par élément d'avance. La fin du traitement est détectée en récupérant la
+     * totalité des permis : aucune Future n'est conservée. La soumission s'arrête à la
+     * première erreur ou à l'arrêt de l'exécution.</p>
+     */
+    private void runPerItem(ExecutorService executor, int size, RunControl control, ChunkTask task)
+            throws InterruptedException, ExecutionException {
 
+        log.debug("Per-item processing: maxConcurrency={}", maxConcurrency);
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        try {
+            for (int i = 0; i < size && failure.get() == null && !control.isStopped(); i++) {
+                int index = i;
+                permits.acquire();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            task.run(index, index + 1);
+                        } catch (Throwable t) {
+                            failure.compareAndSet(null, t);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
         } finally {
-            shutdownExecutor(executor);
+            // Attend les éléments encore en cours
+            permits.acquireUninterruptibly(maxConcurrency);
+        }
+
+        if (failure.get() != null) {
+            throw new ExecutionException(failure.get());
         }
     }
 
     /**
      * Traite un chunk d'éléments.
      */
-    private <T, R> List<R> processChunk(List<T> chunk, Function<T, R> processor) {
+    private <T, R> List<R> processChunk(long firstItem, List<T> chunk, ItemFunction<T, R> processor) {
         log.debug("Processing chunk of {} items", chunk.size());
-        return chunk.stream()
-                .map(processor)
-                .collect(Collectors.toList());
+        List<R> results = new ArrayList<>(chunk.size());
+        long index = firstItem;
+        for (T item : chunk) {
+            results.add(processor.apply(index++, item));
+        }
+        return results;
+    }
+
+    /**
+     * Traite la plage {@code [from, to)} d'une liste et écrit chaque résultat à l'index
+     * de l'élément correspondant dans {@code results}.
+     *
+     * <p>Appelée par blocs de {@link RunControl#CHECK_INTERVAL} éléments : la liste doit
+     * être en accès direct ({@link RandomAccess}). Un élément en échec que la politique
+     * par élément ne rejoue pas fait échouer le chunk.</p>
+     */
+    private <T, R> void processChunk(List<T> items, int from, int to, ItemFunction<T, R> processor,
+                                     Object[] results, RunControl control) {
+        for (int i = from; i < to; i++) {
+            try {
+                results[i] = processor.apply(i, items.get(i));
+            } catch (RuntimeException e) {
+                if (!retryItem(control, items, i, processor, results, 1, e, null, null)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Variante tolérante de {@link #processChunk(List, int, int, ItemFunction, Object[], RunControl)} :
+     * un élément en échec est enregistré dans {@code failures} et le chunk continue.
+     * Si {@code processed} est fourni, chaque élément traité (réussi ou en échec) y est marqué.
+     */
+    private <T, R> void processChunk(List<T> items, int from, int to, ItemFunction<T, R> processor,
+                                     Object[] results, RunControl control, Queue<ItemFailure> failures,
+                                     boolean[] processed) {
+        for (int i = from; i < to; i++) {
+            try {
+                results[i] = processor.apply(i, items.get(i));
+            } catch (Exception e) {
+                if (control.isInterruption(e) || retryItem(control, items, i, processor, results, 1, e, failures, processed)) {
+                    continue;
+                }
+                log.debug("Item {} failed: {}", i, e.toString());
+                failures.add(new ItemFailure(i, e));
+            }
+            if (processed != null) {
+                processed[i] = true;
+            }
+        }
+    }
+
+    /**
+     * Variante de {@link #processChunk(List, int, int, ItemFunction, Object[], RunControl)} qui
+     * journalise les éléments terminés dans {@code checkpoint}. Un élément rejoué plus tard
+     * ({@code retryPolicy}) est exclu de l'enregistrement.
+     */
+    private <T, R> void processChunk(List<T> items, int from, int to, ItemFunction<T, R> processor,
+                                     Object[] results, RunControl control, Checkpoint<R> checkpoint) {
+        int recordFrom = from;
+        for (int i = from; i < to; i++) {
+            try {
+                results[i] = processor.apply(i, items.get(i));
+            } catch (RuntimeException e) {
+                checkpoint.record(recordFrom, i, results);
+                recordFrom = i + 1;
+                if (!retryItem(control, items, i, processor, results, 1, e, null, null)) {
+                    throw e;
+                }
+            }
+        }
+        checkpoint.record(recordFrom, to, results);
+    }
+
+    /**
+     * Planifie une nouvelle tentative pour l'élément {@code index} selon {@code retryPolicy}.
+     *
+     * <p>Si la tentative échoue à son tour et n'est plus rejouable, l'échec est enregistré
+     * dans {@code failures}, ou, sans {@code failures}, arrête l'exécution.</p>
+     *
+     * @return {@code false} si l'échec de la tentative {@code attempt} est définitif
+     */
+    private <T, R> boolean retryItem(RunControl control, List<T> items, int index, ItemFunction<T, R> processor,
+                                     Object[] results, int attempt, Exception failure,
+                                     Queue<ItemFailure> failures, boolean[] processed) {
+        boolean scheduled = control.retry(retryPolicy, attempt, failure, next -> {
+            try {
+                results[index] = processor.apply(index, items.get(index));
+            } catch (RuntimeException e) {
+                if (control.isInterruption(e)
+                        || retryItem(control, items, index, processor, results, next, e, failures, processed)) {
+                    return;
+                }
+                if (failures == null) {
+                    throw e;
+                }
+                log.debug("Item {} failed after {} attempts: {}", index, next, e.toString());
+                failures.add(new ItemFailure(index, e));
+            }
+            if (processed != null) {
+                processed[index] = true;
+            }
+        });
+        if (scheduled) {
+            log.debug("Item {} failed on attempt {} ({}), retry scheduled", index, attempt, failure.toString());
+        }
+        return scheduled;
+    }
+
+    /**
+     * Index des éléments non marqués dans {@code processed} ({@code null} : tous traités).
+     */
+    private static BitSet unprocessed(boolean[] processed) {
+        BitSet unprocessed = new BitSet();
+        if (processed != null) {
+            for (int i = 0; i < processed.length; i++) {
+                if (!processed[i]) {
+                    unprocessed.set(i);
+                }
+            }
+        }
+        return unprocessed;
+    }
+
+    /**
+     * Retourne la liste elle-même si elle est en accès direct, sinon une copie
+     * ({@link java.util.LinkedList} par exemple), pour un accès par index en O(1).
+     */
+    private static <T> List<T> randomAccess(List<T> items) {
+        return items instanceof RandomAccess ? items : new ArrayList<>(items);
     }
 
     /**
      * Crée l'ExecutorService selon la stratégie.
+     *
+     * <p>Les threads sont des démons : un processeur oublié sans {@link #close()}
+     * n'empêche pas l'arrêt de la JVM.</p>
      */
     private ExecutorService createExecutor() {
         return switch (strategy) {
-            case STATIC -> Executors.newFixedThreadPool(parallelism);
+            case STATIC -> Executors.newFixedThreadPool(parallelism, workerThreadFactory());
             case DYNAMIC -> Executors.newWorkStealingPool(parallelism);
-            default -> Executors.newFixedThreadPool(parallelism);
+            case FORK_JOIN -> new ForkJoinPool(parallelism);
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            case WEIGHTED -> Executors.newFixedThreadPool(parallelism, workerThreadFactory());
+            default -> Executors.newFixedThreadPool(parallelism, workerThreadFactory());
+        };
+    }
+
+    /**
+     * Fabrique de threads démons nommés {@code batch-worker-N}.
+     */
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "batch-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         };
     }
 
@@ -144,25 +1421,150 @@ public class ParallelBatchProcessor {
      */
     private void shutdownExecutor(ExecutorService executor) throws InterruptedException {
         executor.shutdown();
-        if (!executor.awaitTermination(5, TimeUnit.MINUTES)) {
-            log.warn("Executor did not terminate in 5 minutes, forcing shutdown");
+        if (!executor.awaitTermination(shutdownTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            log.warn("Executor did not terminate in {}ms, forcing shutdown", shutdownTimeout.toMillis());
             executor.shutdownNow();
         }
     }
 
     /**
-     * Découpe une liste en sous-listes de taille fixe.
+     * Soumet un chunk au CompletionService, en conservant son index pour le réordonnancement.
+     * Si un tuner est fourni, le surcoût de prise en charge par le worker (préparation des
+     * mesures, jusqu'au premier élément) et la durée du chunk lui sont remontés. L'attente
+     * dans la file du pool en est exclue : avec plusieurs chunks en vol, elle vaut la durée
+     * d'un chunk et ferait croître la taille à chaque ajustement ;
+     * la durée du chunk, son temps CPU et ses allocations sont aussi remontés au profileur.
+     * Le chunk est couvert par un {@link ChunkExecutedEvent}.
+     *
+     * @param firstItem Position du premier élément du chunk dans le flux
+     */
+    private <T, R> Future<ChunkResult<R>> submitChunk(CompletionService<ChunkResult<R>> completion,
+                                                      long batchId, long index, long firstItem, List<T> chunk,
+                                                      ItemFunction<T, R> processor, ChunkSizeTuner tuner) {
+        return completion.submit(() -> {
+            long pickedUp = System.nanoTime();
+            ChunkExecutedEvent event = new ChunkExecutedEvent();
+            event.begin();
+            BatchProfiler.ChunkTimer timer = profiler != null ? profiler.startChunk() : null;
+            try {
+                long chunkStart = System.nanoTime();
+                List<R> results = processChunk(firstItem, chunk, processor);
+                long chunkNanos = System.nanoTime() - chunkStart;
+                if (tuner != null) {
+                    tuner.recordDispatchOverhead(chunkStart - pickedUp);
+                    tuner.recordChunk(chunk.size(), chunkNanos);
+                }
+                return new ChunkResult<>(index, results);
+            } finally {
+                // Chunk en échec compris, comme pour les autres traitements
+                if (timer != null) {
+                    timer.stop();
+                }
+                event.complete(batchId, firstItem, chunk.size(), strategy);
+            }
+        });
+    }
+
+    /**
+     * Enveloppe {@code processor} pour remonter la durée de chaque élément au profileur,
+     * s'il y en a un, et signaler les éléments lents à JFR ({@link SlowItemEvent}) si un
+     * enregistrement est en cours.
      *
-     * @param list Liste à découper
-     * @param chunkSize Taille de chaque chunk
-     * @return Liste de chunks
+     * @param batchId Identifiant du traitement dans les événements JFR
+     */
+    private <T, R> ItemFunction<T, R> timed(Function<T, R> processor, long batchId) {
+        ItemFunction<T, R> recorded = SlowItemEvent.recording(processor, batchId, strategy);
+        if (profiler == null) {
+            return recorded;
+        }
+        BatchProfiler target = profiler;
+        return (index, item) -> {
+            long start = System.nanoTime();
+            try {
+                return recorded.apply(index, item);
+            } finally {
+                target.recordItemTime(System.nanoTime() - start);
+            }
+        };
+    }
+
+    /**
+     * Enveloppe {@code task} pour remonter la durée, le temps CPU et les allocations de
+     * chaque chunk au profileur, s'il y en a un.
+     */
+    private ChunkTask timed(ChunkTask task) {
+        if (profiler == null) {
+            return task;
+        }
+        BatchProfiler target = profiler;
+        return (from, to) -> {
+            BatchProfiler.ChunkTimer timer = target.startChunk();
+            try {
+                task.run(from, to);
+            } finally {
+                timer.stop();
+            }
+        };
+    }
+
+    /**
+     * Enveloppe {@code task} pour couvrir chaque chunk d'un {@link ChunkExecutedEvent}.
+     */
+    private ChunkTask recorded(ChunkTask task, long batchId, ChunkItems items) {
+        return (from, to) -> {
+            ChunkExecutedEvent event = new ChunkExecutedEvent();
+            event.begin();
+            try {
+                task.run(from, to);
+            } finally {
+                event.complete(batchId, items.firstItem(from), items.size(from, to), strategy);
+            }
+        };
+    }
+
+    private static boolean cancelled(CancellationToken token) {
+        return token != null && token.isCancelled();
+    }
+
+    /**
+     * Tire au plus {@code size} éléments de la source.
      */
-    private <T> List<List<T>> partitionList(List<T> list, int chunkSize) {
-        List<List<T>> chunks = new ArrayList<>();
-        for (int i = 0; i < list.size(); i += chunkSize) {
-            int end = Math.min(i + chunkSize, list.size());
-            chunks.add(list.subList(i, end));
+    private <T> List<T> nextChunk(Iterator<? extends T> source, int size) {
+        List<T> chunk = new ArrayList<>(size);
+        while (chunk.size() < size && source.hasNext()) {
+            chunk.add(source.next());
         }
-        return chunks;
+        return chunk;
+    }
+
+    /**
+     * Crée un tuner visant {@code targetChunkDuration}.
+     */
+    private ChunkSizeTuner newChunkSizeTuner(int maxChunkSize) {
+        return new ChunkSizeTuner(targetChunkDuration.toNanos(), maxChunkSize);
+    }
+
+    /**
+     * Journalise les tailles de chunks retenues et les transmet au profileur.
+     */
+    private void reportChunkSizes(ChunkSizeTuner tuner) {
+        List<Integer> sizes = tuner.history();
+        log.debug("Adaptive chunk sizes: {}", sizes);
+        if (profiler != null) {
+            profiler.recordChunkSizes(sizes);
+        }
+    }
+
+    /**
+     * Nombre maximum de chunks en vol en mode streaming.
+     */
+    private int inFlightLimit() {
+        return maxInFlightChunks > 0 ? maxInFlightChunks : 2 * parallelism;
+    }
+
+    /**
+     * Résultats d'un chunk, accompagnés de son index dans la source.
+     */
+    private record ChunkResult<R>(long index, List<R> results) {
     }
 }
@@ -19,5 +19,31 @@ public enum PartitionStrategy {
      * aux threads inactifs.
      * Recommandé pour : Traitement hétérogène (temps de traitement variable).
      */
-    DYNAMIC
+    DYNAMIC,
+
+    /**
+     * Découpage récursif Fork/Join : la plage d'items est coupée en deux jusqu'à
+     * {@code chunkSize} éléments, et les moitiés sont volées par les threads inactifs.
+     * Une zone coûteuse de l'entrée est ainsi redistribuée sous la granularité d'un chunk.
+     * Recommandé pour : Données asymétriques (quelques zones concentrent le coût).
+     */
+    FORK_JOIN,
+
+    /**
+     * Threads virtuels : chaque item est soumis comme une tâche sur un thread virtuel, et le
+     * nombre d'items simultanés est borné par {@code maxConcurrency} (et non par
+     * {@code parallelism}). Un item bloqué sur une I/O libère son thread porteur.
+     * Sans chunk, ni le profileur ni JFR ne mesurent de chunks : seule la durée des items
+     * est remontée ({@code processStream} et les plages imposées gardent leurs chunks).
+     * Recommandé pour : Traitements I/O-bound (appels base de données, HTTP).
+     */
+    VIRTUAL,
+
+    /**
+     * Partitionnement pondéré : avec {@code processWeighted}, les items sont regroupés en
+     * plages de coût total équilibré (estimateur fourni par l'appelant), soumises de la plus
+     * coûteuse à la moins coûteuse sur un pool FIFO. Sans estimateur, chaque item compte pour 1.
+     * Recommandé pour : Coût par item très variable mais prévisible (ex : nombre de lignes).
+     */
+    WEIGHTED
 }
@@ -0,0 +1,50 @@
+package com.imadattar.batch.parallel;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Sérialisation des résultats journalisés par un {@link Checkpoint}.
+ *
+ * <pre>{@code
+ * ResultCodec<Long> codec = ResultCodec.of(DataOutput::writeLong, DataInput::readLong);
+ * }</pre>
+ *
+ * @param <R> Type des résultats
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public interface ResultCodec<R> {
+
+    void write(R result, DataOutput out) throws IOException;
+
+    R read(DataInput in) throws IOException;
+
+    /**
+     * Codec à partir d'une fonction d'écriture et d'une fonction de lecture.
+     */
+    static <R> ResultCodec<R> of(Writer<R> writer, Reader<R> reader) {
+        return new ResultCodec<>() {
+            @Override
+            public void write(R result, DataOutput out) throws IOException {
+                writer.write(out, result);
+            }
+
+            @Override
+            public R read(DataInput in) throws IOException {
+                return reader.read(in);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface Writer<R> {
+        void write(DataOutput out, R result) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface Reader<R> {
+        R read(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,24 @@
+package com.imadattar.batch.parallel;
+
+/**
+ * Ordre de livraison des résultats d'un traitement parallèle.
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public enum ResultOrder {
+
+    /**
+     * Les résultats sont livrés dans l'ordre de la source. Un chunk terminé en avance
+     * est conservé dans un tampon de réordonnancement borné par {@code maxInFlightChunks}.
+     * Recommandé pour : écriture séquentielle, rapprochement ligne à ligne.
+     */
+    ORDERED,
+
+    /**
+     * Les résultats de chaque chunk sont livrés dès que ce chunk se termine
+     * (ordre de complétion). Un chunk lent ne bloque plus les chunks suivants.
+     * Recommandé pour : agrégations, sinks indifférents à l'ordre, latence minimale.
+     */
+    UNORDERED
+}
@@ -0,0 +1,320 @@
+package com.imadattar.batch.parallel;
+
+import com.imadattar.batch.retry.RetryPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * État partagé par les tâches d'une même exécution.
+ *
+ * <p>Dès qu'une tâche échoue, l'exécution est arrêtée : les autres tâches cessent de traiter
+ * des éléments au prochain bloc de {@value #CHECK_INTERVAL} éléments, au lieu de consommer
+ * du CPU pour un résultat qui sera de toute façon rejeté.</p>
+ *
+ * <p>Les nouvelles tentatives ne bloquent aucun worker : après le délai de la politique,
+ * le timer remet la tentative dans le pool, et le worker poursuit entre-temps le reste de
+ * son chunk. L'exécution attend ensuite les tentatives encore en attente
+ * ({@link #awaitRetries()}).</p>
+ *
+ * <p>Annulation : à l'annulation du {@link CancellationToken} ou à son échéance, les tâches
+ * cessent de traiter des éléments au prochain bloc et, si {@code interruptOnCancel} est
+ * activé, les threads qui exécutent un chunk sont interrompus.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Slf4j
+class RunControl {
+
+    /**
+     * Nombre d'éléments traités entre deux vérifications de l'arrêt.
+     */
+    static final int CHECK_INTERVAL = 64;
+
+    private final Executor executor;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final RetryPolicy chunkRetryPolicy;
+
+    private final CancellationToken token;
+
+    private final boolean interruptOnCancel;
+
+    /**
+     * Threads exécutant un chunk, à interrompre à l'annulation (protégé par lui-même).
+     */
+    private final Set<Thread> workers = new HashSet<>();
+
+    private final Runnable cancelListener = this::cancel;
+
+    private ScheduledFuture<?> deadlineWatch;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final Object retryLock = new Object();
+
+    /**
+     * Tentatives planifiées ou en cours (protégé par {@code retryLock}).
+     */
+    private int pendingRetries;
+
+    private volatile boolean stopped;
+
+    private volatile boolean cancelled;
+
+    /**
+     * @param executor Pool exécutant les nouvelles tentatives
+     * @param scheduler Timer des nouvelles tentatives et de l'échéance ({@code null} si
+     *                  aucune politique ni échéance)
+     * @param chunkRetryPolicy Politique appliquée aux chunks en échec ({@code null} si aucune)
+     * @param token Jeton d'annulation ({@code null} si le traitement n'est pas annulable)
+     * @param interruptOnCancel Interrompre les chunks en cours à l'annulation
+     */
+    RunControl(Executor executor, ScheduledExecutorService scheduler, RetryPolicy chunkRetryPolicy,
+               CancellationToken token, boolean interruptOnCancel) {
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.chunkRetryPolicy = chunkRetryPolicy;
+        this.token = token;
+        this.interruptOnCancel = interruptOnCancel;
+    }
+
+    /**
+     * Commence à surveiller le jeton d'annulation et son échéance.
+     */
+    void start() {
+        if (token == null) {
+            return;
+        }
+        token.onCancel(cancelListener);
+        if (token.hasDeadline()) {
+            deadlineWatch = scheduler.schedule(this::cancel, token.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Cesse de surveiller le jeton, une fois toutes les tâches terminées.
+     */
+    void finish() {
+        if (token == null) {
+            return;
+        }
+        token.removeListener(cancelListener);
+        if (deadlineWatch != null) {
+            deadlineWatch.cancel(false);
+        }
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Annule l'exécution : plus aucun élément n'est distribué et, si configuré, les chunks
+     * en cours sont interrompus.
+     */
+    void cancel() {
+        cancelled = true;
+        stop();
+        if (interruptOnCancel) {
+            synchronized (workers) {
+                workers.forEach(Thread::interrupt);
+            }
+        }
+    }
+
+    /**
+     * Indique si l'exécution a été annulée (jeton annulé ou échéance dépassée).
+     */
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Indique si {@code failure} résulte de l'interruption d'un élément par l'annulation
+     * (une {@link InterruptedException} ou une I/O interrompue dans ses causes) : l'élément
+     * reste alors non traité. Tout autre échec, même survenu après l'annulation et sur un
+     * thread interrompu, est un vrai échec.
+     */
+    boolean isInterruption(Throwable failure) {
+        if (!cancelled || !interruptOnCancel) {
+            return false;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException
+                    || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Arrête l'exécution sur un échec survenu hors des tâches soumises (nouvelle tentative).
+     * Seul le premier échec est conservé.
+     */
+    void fail(Throwable cause) {
+        failure.compareAndSet(null, cause);
+        stop();
+    }
+
+    /**
+     * Premier échec enregistré par {@link #fail(Throwable)}, ou {@code null}.
+     */
+    Throwable failure() {
+        return failure.get();
+    }
+
+    /**
+     * Planifie une nouvelle tentative si la politique l'autorise.
+     *
+     * <p>{@code nextAttempt} reçoit le numéro de la tentative suivante et s'exécute dans le
+     * pool ; une exception qui s'en échappe arrête l'exécution.</p>
+     *
+     * @param policy Politique à appliquer ({@code null} : aucune nouvelle tentative)
+     * @param attempt Numéro de la tentative en échec (1 pour la première)
+     * @param cause Exception levée par la tentative
+     * @param nextAttempt Tentative suivante
+     * @return {@code false} si l'échec est définitif
+     */
+    boolean retry(RetryPolicy policy, int attempt, Throwable cause, IntConsumer nextAttempt) {
+        if (policy == null || stopped || !policy.shouldRetry(cause, attempt)) {
+            return false;
+        }
+        Duration delay = policy.delayBeforeRetry(attempt);
+        synchronized (retryLock) {
+            pendingRetries++;
+        }
+        try {
+            scheduler.schedule(() -> handOff(attempt + 1, nextAttempt), delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Processeur fermé : l'échec devient définitif
+            retryFinished();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Attend la fin de toutes les nouvelles tentatives planifiées.
+     */
+    void awaitRetries() throws InterruptedException {
+        synchronized (retryLock) {
+            while (pendingRetries > 0) {
+                retryLock.wait();
+            }
+        }
+    }
+
+    /**
+     * Enveloppe une tâche pour qu'elle s'interrompe dès l'arrêt de l'exécution et qu'un
+     * échec arrête les autres tâches.
+     *
+     * <p>Avec une politique par chunk, un chunk en échec est repris plus tard à partir du
+     * bloc en échec : les éléments de ce bloc traités avant l'échec sont rejoués.</p>
+     */
+    ChunkTask guard(ChunkTask task) {
+        return (from, to) -> runGuarded(task, from, to, 1);
+    }
+
+    private void runGuarded(ChunkTask task, int from, int to, int attempt) {
+        if (token == null) {
+            runBlocks(task, from, to, attempt);
+            return;
+        }
+        Thread current = Thread.currentThread();
+        synchronized (workers) {
+            workers.add(current);
+        }
+        try {
+            runBlocks(task, from, to, attempt);
+        } finally {
+            synchronized (workers) {
+                workers.remove(current);
+            }
+            if (cancelled && interruptOnCancel) {
+                // Interruption destinée à ce chunk : le thread retourne au pool sans elle
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private void runBlocks(ChunkTask task, int from, int to, int attempt) {
+        int block = from;
+        try {
+            while (block < to && !stopped) {
+                if (token != null && token.isCancelled()) {
+                    // Échéance atteinte avant le déclenchement du timer
+                    cancel();
+                    break;
+                }
+                int end = to - block > CHECK_INTERVAL ? block + CHECK_INTERVAL : to;
+                task.run(block, end);
+                block = end;
+            }
+        } catch (RuntimeException e) {
+            if (isInterruption(e)) {
+                // Échec provoqué par l'interruption : l'élément reste non traité
+                return;
+            }
+            int resumeFrom = block;
+            if (retry(chunkRetryPolicy, attempt, e, next -> runGuarded(task, resumeFrom, to, next))) {
+                log.debug("Chunk [{}, {}) failed on attempt {} ({}), retry scheduled",
+                        resumeFrom, to, attempt, e.toString());
+                return;
+            }
+            stop();
+            throw e;
+        } catch (Error e) {
+            stop();
+            throw e;
+        }
+    }
+
+    /**
+     * Remet une tentative dans le pool, depuis le thread du timer.
+     */
+    private void handOff(int attempt, IntConsumer nextAttempt) {
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!stopped) {
+                        nextAttempt.accept(attempt);
+                    }
+                } catch (RuntimeException | Error e) {
+                    fail(e);
+                } finally {
+                    retryFinished();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(e);
+            retryFinished();
+        }
+    }
+
+    private void retryFinished() {
+        synchronized (retryLock) {
+            if (--pendingRetries == 0) {
+                retryLock.notifyAll();
+            }
+        }
+    }
+}
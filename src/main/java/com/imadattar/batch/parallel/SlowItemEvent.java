@@ -0,0 +1,76 @@
+package com.imadattar.batch.parallel;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.util.function.Function;
+
+/**
+ * Événement JFR couvrant le traitement d'un élément plus long que le seuil de
+ * l'enregistrement ({@value #DEFAULT_THRESHOLD} par défaut, réglable par
+ * {@code com.imadattar.batch.SlowItem#threshold} dans un fichier {@code .jfc}).
+ *
+ * <p>Seuls les éléments lents sont écrits : les autres ne coûtent que deux lectures de
+ * l'horloge de JFR, et rien du tout hors enregistrement. L'élément est identifié par son
+ * traitement ({@code batchId} du {@link BatchStartedEvent}) et sa position, comme le
+ * premier élément d'un {@link ChunkExecutedEvent} : un élément lent se retrouve sans
+ * ambiguïté dans la liste ou le flux d'origine.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Name("com.imadattar.batch.SlowItem")
+@Label("Slow Item")
+@Category({"Batch Optimizer", "Parallel Processing"})
+@Description("Processing of a single item that exceeded the threshold")
+@Threshold(SlowItemEvent.DEFAULT_THRESHOLD)
+@StackTrace(false)
+final class SlowItemEvent extends jdk.jfr.Event {
+
+    static final String DEFAULT_THRESHOLD = "10 ms";
+
+    @Label("Batch Id")
+    long batchId;
+
+    @Label("Item Index")
+    @Description("Index of the item in the batch, -1 for file records")
+    long itemIndex;
+
+    @Label("Item Type")
+    String itemType;
+
+    @Label("Strategy")
+    String strategy;
+
+    /**
+     * Enveloppe {@code processor} pour signaler ses éléments lents, si un enregistrement
+     * JFR en cours a activé l'événement ; sinon l'adapte simplement. Un enregistrement
+     * démarré en cours de traitement ne voit que les éléments lents des traitements suivants.
+     */
+    static <T, R> ItemFunction<T, R> recording(Function<T, R> processor, long batchId,
+                                               PartitionStrategy strategy) {
+        if (!new SlowItemEvent().isEnabled()) {
+            return (index, item) -> processor.apply(item);
+        }
+        return (index, item) -> {
+            SlowItemEvent event = new SlowItemEvent();
+            event.begin();
+            try {
+                return processor.apply(item);
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.batchId = batchId;
+                    event.itemIndex = index;
+                    event.itemType = item == null ? null : item.getClass().getName();
+                    event.strategy = strategy.name();
+                    event.commit();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,416 @@
+package com.imadattar.batch.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Pipeline d'étapes exécutées simultanément, reliées par des files bornées.
+ *
+ * <p>Là où des appels successifs à {@code ParallelBatchProcessor.process()} matérialisent
+ * chaque liste intermédiaire et laissent des cœurs inactifs entre deux étapes, les étapes
+ * d'un pipeline traitent des chunks en même temps : dès qu'un chunk est transformé, il
+ * part vers l'enrichissement pendant que le chunk suivant est lu. Chaque étape a ses propres
+ * threads ({@code parallelism}), dimensionnés selon sa nature (CPU ou I/O).</p>
+ *
+ * <p>Backpressure : les files entre étapes sont bornées à {@code queueCapacity} chunks.
+ * Une étape plus rapide que la suivante se bloque lorsque la file est pleine, si bien que
+ * la mémoire reste bornée à environ {@code (étapes + 1) × queueCapacity × chunkSize}
+ * éléments, quelle que soit la taille de la source.</p>
+ *
+ * <h2>Exemple d'utilisation</h2>
+ * <pre>{@code
+ * try (Pipeline<Record, Row> pipeline = Pipeline.<Record>builder()
+ *         .chunkSize(500)
+ *         .queueCapacity(8)
+ *         .stage("transform", 4, this::transform)
+ *         .stage("enrich", 32, this::enrich)      // appels réseau : plus de threads
+ *         .build()) {
+ *
+ *     PipelineMetrics metrics = pipeline.run(reader.stream(), writer::writeAll);
+ *     log.info("Bottleneck: {}", metrics.getBottleneck());
+ * }
+ * }</pre>
+ *
+ * <p>Les chunks sont livrés au sink dans leur ordre d'arrivée, depuis le thread appelant :
+ * le sink n'a pas besoin d'être thread-safe, mais l'ordre de la source n'est pas conservé.
+ * Fail-fast : la première exception d'une étape arrête tout le pipeline.</p>
+ *
+ * @param <I> Type des éléments de la source
+ * @param <O> Type des éléments en sortie de la dernière étape
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Slf4j
+public final class Pipeline<I, O> implements AutoCloseable {
+
+    /**
+     * Marqueur de fin de flux, comparé par identité.
+     */
+    private static final List<Object> END = new ArrayList<>(0);
+
+    /**
+     * Intervalle de vérification d'un échec par le thread appelant.
+     */
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final List<Stage> stages;
+
+    private final int chunkSize;
+
+    private final int queueCapacity;
+
+    /**
+     * Pools créés à la première exécution puis réutilisés : source, puis une par étape.
+     */
+    private final AtomicReference<List<ExecutorService>> pools = new AtomicReference<>();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Sérialise les exécutions : deux exécutions simultanées se disputeraient les threads
+     * des étapes et pourraient se bloquer mutuellement.
+     */
+    private final Object runLock = new Object();
+
+    private Pipeline(List<Stage> stages, int chunkSize, int queueCapacity) {
+        this.stages = List.copyOf(stages);
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @param <T> Type des éléments de la source
+     */
+    public static <T> PipelineBuilder<T, T> builder() {
+        return new PipelineBuilder<>(new ArrayList<>(), 1000, 0);
+    }
+
+    /**
+     * Exécute le pipeline sur la source jusqu'à son épuisement.
+     *
+     * @param source Source des éléments, consommée par un thread dédié
+     * @param sink Consommateur des résultats, appelé une fois par chunk depuis le thread appelant
+     * @return Métriques de l'exécution, par étape
+     * @throws InterruptedException si le traitement est interrompu
+     * @throws ExecutionException si une étape ou la source échoue
+     * @throws IllegalStateException si le pipeline a été fermé
+     */
+    @SuppressWarnings("unchecked")
+    public PipelineMetrics run(Iterator<? extends I> source, Consumer<? super List<O>> sink)
+            throws InterruptedException, ExecutionException {
+
+        synchronized (runLock) {
+            List<ExecutorService> executors = acquirePools();
+            log.info("Starting pipeline: {} stages, chunkSize={}, queueCapacity={}",
+                    stages.size(), chunkSize, queueCapacity);
+
+            long startTime = System.nanoTime();
+            List<BlockingQueue<List<Object>>> queues = new ArrayList<>(stages.size() + 1);
+            List<StageCounters> counters = new ArrayList<>(stages.size());
+            for (int i = 0; i <= stages.size(); i++) {
+                queues.add(new ArrayBlockingQueue<>(queueCapacity));
+            }
+            Execution execution = new Execution();
+
+            execution.submit(executors.get(0), () -> feed(source, queues.get(0)));
+            for (int i = 0; i < stages.size(); i++) {
+                Stage stage = stages.get(i);
+                StageCounters stageCounters = new StageCounters();
+                counters.add(stageCounters);
+                AtomicInteger remainingWorkers = new AtomicInteger(stage.parallelism());
+                BlockingQueue<List<Object>> input = queues.get(i);
+                BlockingQueue<List<Object>> output = queues.get(i + 1);
+                for (int w = 0; w < stage.parallelism(); w++) {
+                    execution.submit(executors.get(i + 1),
+                            () -> work(stage, input, output, remainingWorkers, stageCounters));
+                }
+            }
+
+            BlockingQueue<List<Object>> output = queues.get(stages.size());
+            long itemsProcessed = 0;
+            boolean completed = false;
+            try {
+                while (true) {
+                    List<Object> chunk = output.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (execution.failure() != null) {
+                        throw new ExecutionException(execution.failure());
+                    }
+                    if (chunk == END) {
+                        break;
+                    }
+                    if (chunk != null) {
+                        sink.accept((List<O>) chunk);
+                        itemsProcessed += chunk.size();
+                    }
+                }
+                completed = true;
+            } finally {
+                if (!completed) {
+                    execution.cancel();
+                }
+            }
+
+            long elapsedNanos = System.nanoTime() - startTime;
+            List<StageMetrics> stageMetrics = new ArrayList<>(stages.size());
+            for (int i = 0; i < stages.size(); i++) {
+                stageMetrics.add(counters.get(i).toMetrics(stages.get(i), queueCapacity, elapsedNanos));
+            }
+            PipelineMetrics metrics = PipelineMetrics.builder()
+                    .totalTimeMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                    .itemsProcessed(itemsProcessed)
+                    .throughput(elapsedNanos > 0 ? itemsProcessed / (elapsedNanos / 1_000_000_000.0) : 0)
+                    .stages(List.copyOf(stageMetrics))
+                    .build();
+            log.info("Pipeline completed: {}", metrics);
+            return metrics;
+        }
+    }
+
+    /**
+     * Variante de {@link #run(Iterator, Consumer)} pour un {@link Stream}.
+     * Le stream est consommé séquentiellement mais n'est pas fermé.
+     */
+    public PipelineMetrics run(Stream<? extends I> source, Consumer<? super List<O>> sink)
+            throws InterruptedException, ExecutionException {
+        return run(source.iterator(), sink);
+    }
+
+    /**
+     * Arrête les threads du pipeline. L'appel est idempotent.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        List<ExecutorService> owned;
+        synchronized (pools) {
+            owned = pools.getAndSet(null);
+        }
+        if (owned != null) {
+            owned.forEach(ExecutorService::shutdownNow);
+        }
+        log.debug("Pipeline closed");
+    }
+
+    /**
+     * Tire les chunks de la source et les place dans la file de la première étape.
+     */
+    private void feed(Iterator<? extends I> source, BlockingQueue<List<Object>> output) throws InterruptedException {
+        while (source.hasNext()) {
+            List<Object> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && source.hasNext()) {
+                chunk.add(source.next());
+            }
+            output.put(chunk);
+        }
+        output.put(END);
+    }
+
+    /**
+     * Boucle d'un thread d'étape : prend un chunk, le transforme, le transmet à l'étape
+     * suivante (en attendant si sa file est pleine).
+     *
+     * <p>Le marqueur de fin est remis dans la file pour les autres threads de l'étape ; le
+     * dernier à le recevoir le transmet à l'étape suivante.</p>
+     */
+    private void work(Stage stage, BlockingQueue<List<Object>> input, BlockingQueue<List<Object>> output,
+                      AtomicInteger remainingWorkers, StageCounters counters) throws InterruptedException {
+        Function<Object, Object> function = stage.function();
+        while (true) {
+            counters.recordQueueDepth(input.size());
+            List<Object> chunk = input.take();
+            if (chunk == END) {
+                if (remainingWorkers.decrementAndGet() == 0) {
+                    output.put(END);
+                } else {
+                    input.put(END);
+                }
+                return;
+            }
+            long start = System.nanoTime();
+            List<Object> results = new ArrayList<>(chunk.size());
+            for (Object item : chunk) {
+                results.add(function.apply(item));
+            }
+            counters.recordChunk(chunk.size(), System.nanoTime() - start);
+            output.put(results);
+        }
+    }
+
+    /**
+     * Retourne les pools du pipeline, créés au premier appel.
+     */
+    private List<ExecutorService> acquirePools() {
+        synchronized (pools) {
+            if (closed.get()) {
+                throw new IllegalStateException("Pipeline is closed");
+            }
+            List<ExecutorService> current = pools.get();
+            if (current == null) {
+                current = new ArrayList<>(stages.size() + 1);
+                current.add(Executors.newSingleThreadExecutor(threadFactory("source")));
+                for (Stage stage : stages) {
+                    current.add(Executors.newFixedThreadPool(stage.parallelism(), threadFactory(stage.name())));
+                }
+                pools.set(current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Fabrique de threads démons nommés {@code pipeline-<étape>-N}.
+     */
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "pipeline-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Tâche d'une exécution, interrompue lorsque l'exécution est annulée.
+     */
+    @FunctionalInterface
+    private interface PipelineTask {
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * État d'une exécution : tâches soumises et premier échec.
+     */
+    private static final class Execution {
+
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private boolean cancelled;
+
+        void submit(ExecutorService executor, PipelineTask task) {
+            Future<?> future = executor.submit(() -> {
+                try {
+                    task.run();
+                } catch (InterruptedException e) {
+                    // Exécution annulée
+                    Thread.currentThread().interrupt();
+                } catch (Throwable t) {
+                    if (failure.compareAndSet(null, t)) {
+                        log.error("Pipeline task failed, stopping pipeline", t);
+                    }
+                    cancel();
+                }
+            });
+            synchronized (futures) {
+                futures.add(future);
+                if (cancelled) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        /**
+         * Interrompt toutes les tâches : les threads bloqués sur une file pleine ou vide
+         * sont libérés.
+         */
+        void cancel() {
+            synchronized (futures) {
+                cancelled = true;
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+
+        Throwable failure() {
+            return failure.get();
+        }
+    }
+
+    /**
+     * Builder typé : chaque étape fait évoluer le type des éléments en sortie.
+     *
+     * @param <I> Type des éléments de la source
+     * @param <O> Type des éléments en sortie de la dernière étape ajoutée
+     */
+    public static final class PipelineBuilder<I, O> {
+
+        private final List<Stage> stages;
+
+        private final int chunkSize;
+
+        private final int queueCapacity;
+
+        private PipelineBuilder(List<Stage> stages, int chunkSize, int queueCapacity) {
+            this.stages = stages;
+            this.chunkSize = chunkSize;
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * Taille des chunks échangés entre étapes (1000 par défaut).
+         */
+        public PipelineBuilder<I, O> chunkSize(int chunkSize) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("chunkSize must be >= 1: " + chunkSize);
+            }
+            return new PipelineBuilder<>(stages, chunkSize, queueCapacity);
+        }
+
+        /**
+         * Capacité de chaque file entre étapes, en chunks.
+         * Par défaut (0) : 2 × parallélisme maximal des étapes.
+         */
+        public PipelineBuilder<I, O> queueCapacity(int queueCapacity) {
+            if (queueCapacity < 0) {
+                throw new IllegalArgumentException("queueCapacity must be >= 0: " + queueCapacity);
+            }
+            return new PipelineBuilder<>(stages, chunkSize, queueCapacity);
+        }
+
+        /**
+         * Ajoute une étape.
+         *
+         * @param name Nom de l'étape (métriques, noms des threads)
+         * @param parallelism Nombre de threads de l'étape
+         * @param function Traitement d'un élément (doit être thread-safe)
+         * @param <N> Type des éléments en sortie de l'étape
+         */
+        @SuppressWarnings("unchecked")
+        public <N> PipelineBuilder<I, N> stage(String name, int parallelism, Function<? super O, ? extends N> function) {
+            Objects.requireNonNull(function, "function");
+            List<Stage> next = new ArrayList<>(stages);
+            next.add(new Stage(name, parallelism, (Function<Object, Object>) (Function<?, ?>) function));
+            return new PipelineBuilder<>(next, chunkSize, queueCapacity);
+        }
+
+        public Pipeline<I, O> build() {
+            if (stages.isEmpty()) {
+                throw new IllegalStateException("Pipeline must have at least one stage");
+            }
+            int capacity = queueCapacity > 0
+                    ? queueCapacity
+                    : 2 * stages.stream().mapToInt(Stage::parallelism).max().orElse(1);
+            return new Pipeline<>(stages, chunkSize, capacity);
+        }
+    }
+}
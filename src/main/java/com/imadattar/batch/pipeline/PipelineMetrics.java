@@ -0,0 +1,50 @@
+package com.imadattar.batch.pipeline;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Métriques d'une exécution de {@link Pipeline}.
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Getter
+@Builder
+public class PipelineMetrics {
+
+    private final long totalTimeMs;
+
+    /**
+     * Éléments livrés au sink.
+     */
+    private final long itemsProcessed;
+
+    private final double throughput;
+
+    /**
+     * Métriques par étape, dans l'ordre du pipeline.
+     */
+    private final List<StageMetrics> stages;
+
+    /**
+     * Étape la plus chargée (utilisation maximale) : c'est elle qui limite le débit, et
+     * celle dont il faut augmenter le parallélisme en priorité.
+     */
+    public StageMetrics getBottleneck() {
+        return stages.stream()
+                .max(Comparator.comparingDouble(StageMetrics::getUtilization))
+                .orElse(null);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format(
+                "Pipeline: %d items in %dms (%.2f items/s)", itemsProcessed, totalTimeMs, throughput));
+        stages.forEach(stage -> sb.append(System.lineSeparator()).append("  ").append(stage));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.imadattar.batch.pipeline;
+
+import java.util.function.Function;
+
+/**
+ * Étape d'un {@link Pipeline} : une fonction appliquée à chaque élément par
+ * {@code parallelism} threads dédiés.
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+record Stage(String name, int parallelism, Function<Object, Object> function) {
+
+    Stage {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1 for stage " + name + ": " + parallelism);
+        }
+    }
+}
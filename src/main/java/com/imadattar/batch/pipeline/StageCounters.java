@@ -0,0 +1,56 @@
+package com.imadattar.batch.pipeline;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'une étape pendant une exécution, alimentés par ses threads.
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+class StageCounters {
+
+    private final LongAdder items = new LongAdder();
+
+    private final LongAdder busyNanos = new LongAdder();
+
+    private final LongAdder queueDepthSum = new LongAdder();
+
+    private final LongAdder queueDepthSamples = new LongAdder();
+
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    /**
+     * Enregistre la profondeur de la file d'entrée, observée à la prise d'un chunk.
+     */
+    void recordQueueDepth(int depth) {
+        queueDepthSum.add(depth);
+        queueDepthSamples.increment();
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    /**
+     * Enregistre un chunk traité et le temps passé à le traiter.
+     */
+    void recordChunk(int size, long nanos) {
+        items.add(size);
+        busyNanos.add(nanos);
+    }
+
+    StageMetrics toMetrics(Stage stage, int queueCapacity, long elapsedNanos) {
+        long processed = items.sum();
+        long samples = queueDepthSamples.sum();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        return StageMetrics.builder()
+                .name(stage.name())
+                .parallelism(stage.parallelism())
+                .itemsProcessed(processed)
+                .throughput(seconds > 0 ? processed / seconds : 0)
+                .utilization(elapsedNanos > 0 ? busyNanos.sum() / ((double) elapsedNanos * stage.parallelism()) : 0)
+                .averageQueueDepth(samples > 0 ? (double) queueDepthSum.sum() / samples : 0)
+                .maxQueueDepth(maxQueueDepth.get())
+                .queueCapacity(queueCapacity)
+                .build();
+    }
+}
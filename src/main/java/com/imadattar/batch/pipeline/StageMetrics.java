@@ -0,0 +1,51 @@
+package com.imadattar.batch.pipeline;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Métriques d'une étape de pipeline.
+ *
+ * <p>Lecture : une étape goulet d'étranglement a une utilisation proche de 100% et une
+ * file d'entrée souvent pleine ; les étapes en aval ont alors une file presque vide.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Getter
+@Builder
+public class StageMetrics {
+
+    private final String name;
+
+    private final int parallelism;
+
+    private final long itemsProcessed;
+
+    /**
+     * Éléments traités par seconde, sur la durée totale du pipeline.
+     */
+    private final double throughput;
+
+    /**
+     * Part du temps où les threads de l'étape étaient occupés, entre 0 et 1.
+     */
+    private final double utilization;
+
+    /**
+     * Profondeur moyenne de la file d'entrée, en chunks, observée à chaque prise.
+     */
+    private final double averageQueueDepth;
+
+    private final int maxQueueDepth;
+
+    private final int queueCapacity;
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Stage[%s]: %d items, %.2f items/s, utilization=%.0f%%, queue avg=%.1f max=%d/%d (parallelism=%d)",
+                name, itemsProcessed, throughput, utilization * 100, averageQueueDepth,
+                maxQueueDepth, queueCapacity, parallelism);
+    }
+}
@@ -5,6 +5,15 @@ import lombok.extern.slf4j.Slf4j;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Profileur de performance pour batchs.
@@ -12,11 +21,17 @@ import java.lang.management.MemoryUsage;
  * <p>Mesure automatiquement :
  * <ul>
  *     <li>Temps d'exécution total</li>
- *     <li>Consommation mémoire (heap, non-heap)</li>
+ *     <li>Allocations (débit, octets par item, par worker), pauses GC et pic de chaque pool mémoire</li>
  *     <li>Throughput (items/seconde)</li>
+ *     <li>Charge CPU du processus (moyenne et pic) et temps CPU par worker</li>
+ *     <li>Distribution des temps de traitement par item et par chunk (percentiles)</li>
  * </ul>
  * </p>
  *
+ * <p>Les compteurs peuvent être alimentés simultanément par tous les workers : ils sont
+ * répartis en cellules ({@link LongAdder}) pour que les threads ne se disputent pas une
+ * même ligne de cache, et ne sont sommés qu'à la lecture.</p>
+ *
  * <h2>Exemple d'utilisation</h2>
  * <pre>{@code
  * BatchProfiler profiler = new BatchProfiler();
@@ -29,28 +44,120 @@ import java.lang.management.MemoryUsage;
  * System.out.println("Temps: " + metrics.getTotalTimeMs() + "ms");
  * }</pre>
  *
+ * <h2>Phases</h2>
+ * <p>{@link #phase(String)} chronomètre une étape nommée ; les phases ouvertes dans une
+ * phase du même thread en sont les sous-phases. Les durées d'une même phase sont cumulées
+ * sur tous les threads, et {@link PerformanceMetrics#getPhases()} en restitue l'arbre :</p>
+ * <pre>{@code
+ * try (BatchProfiler.Phase read = profiler.phase("read")) {
+ *     records = reader.read(file, Record::parse);
+ * }
+ * try (BatchProfiler.Phase transform = profiler.phase("transform")) {
+ *     results = processor.process(records, record -> {
+ *         try (BatchProfiler.Phase enrich = profiler.phase("enrich")) {   // Phase racine, côté worker
+ *             return enrich(record);
+ *         }
+ *     });
+ * }
+ * }</pre>
+ * <p>Toutes les durées sont mesurées avec {@link System#nanoTime()}, horloge monotone.</p>
+ *
+ * <h2>CPU</h2>
+ * <p>Entre {@link #start()} et {@link #stop()}, un thread démon échantillonne la charge CPU
+ * du processus. En parallèle, le processeur relève le temps CPU de chaque chunk sur le
+ * thread qui l'exécute ({@link ThreadMXBean#getCurrentThreadCpuTime()}) : le rapport entre
+ * le temps écoulé et le temps CPU des workers ({@link PerformanceMetrics#getBlockingRatio()})
+ * indique la part du temps passée à attendre. Les threads virtuels n'exposent pas leur
+ * temps CPU et ne sont pas comptés.</p>
+ *
+ * <h2>Mémoire</h2>
+ * <p>Les octets alloués (par tous les threads, et par worker pour chaque chunk) et les
+ * pauses GC sont comptés entre {@link #start()} et {@link #stop()} : ce sont les grandeurs
+ * à régler ({@link PerformanceMetrics#getAllocationRate()},
+ * {@link PerformanceMetrics#getAllocatedBytesPerItem()},
+ * {@link PerformanceMetrics#getGcOverheadPercent()}). La différence de mémoire utilisée
+ * entre le début et la fin dépend surtout du moment où le GC est passé.</p>
+ *
  * @author Imad ATTAR
  * @since 1.0.0
  */
 @Slf4j
 public class BatchProfiler {
 
+    /**
+     * Intervalle d'échantillonnage de la charge CPU par défaut.
+     */
+    public static final Duration DEFAULT_CPU_SAMPLING_INTERVAL = Duration.ofMillis(100);
+
     private final MemoryMXBean memoryBean;
-    private long startTime;
+    private final ThreadMXBean threadBean;
+    private final boolean threadCpuTimeSupported;
+    private final com.sun.management.ThreadMXBean allocationBean;
+    private final long cpuSamplingNanos;
+    private long startNanos;
     private long startMemory;
-    private int itemsProcessed;
+    private final LongAdder itemsProcessed = new LongAdder();
+    private final List<Integer> chunkSizes = new CopyOnWriteArrayList<>();
+    private final LatencyHistogram itemLatency = new LatencyHistogram();
+    private final LatencyHistogram chunkLatency = new LatencyHistogram();
+    private volatile PhaseNode rootPhase = new PhaseNode("", null);
+    private final LongAdder workerCpuNanos = new LongAdder();
+    private final LongAdder workerWallNanos = new LongAdder();
+    private final Map<String, LongAdder> cpuByWorker = new ConcurrentHashMap<>();
+    private final LongAdder workerAllocatedBytes = new LongAdder();
+    private final Map<String, LongAdder> allocationsByWorker = new ConcurrentHashMap<>();
+    private CpuSampler cpuSampler;
+    private MemoryMonitor memoryMonitor;
+
+    /**
+     * Phase ouverte la plus profonde du thread courant.
+     */
+    private final ThreadLocal<PhaseNode> currentPhase = new ThreadLocal<>();
 
     public BatchProfiler() {
+        this(DEFAULT_CPU_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * @param cpuSamplingInterval Intervalle d'échantillonnage de la charge CPU : plus il est
+     *                            court, plus le pic est précis
+     */
+    public BatchProfiler(Duration cpuSamplingInterval) {
+        if (cpuSamplingInterval.isNegative() || cpuSamplingInterval.isZero()) {
+            throw new IllegalArgumentException("cpuSamplingInterval must be > 0: " + cpuSamplingInterval);
+        }
         this.memoryBean = ManagementFactory.getMemoryMXBean();
+        this.threadBean = ManagementFactory.getThreadMXBean();
+        this.threadCpuTimeSupported = enableThreadCpuTime(threadBean);
+        this.allocationBean = threadBean instanceof com.sun.management.ThreadMXBean bean
+                && enableAllocatedMemory(bean) ? bean : null;
+        this.cpuSamplingNanos = cpuSamplingInterval.toNanos();
     }
 
     /**
      * Démarre le profiling.
      */
     public void start() {
-        this.startTime = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
         this.startMemory = getUsedMemory();
-        this.itemsProcessed = 0;
+        this.itemsProcessed.reset();
+        this.chunkSizes.clear();
+        this.itemLatency.reset();
+        this.chunkLatency.reset();
+        this.rootPhase = new PhaseNode("", null);
+        this.workerCpuNanos.reset();
+        this.workerWallNanos.reset();
+        this.cpuByWorker.clear();
+        this.workerAllocatedBytes.reset();
+        this.allocationsByWorker.clear();
+        if (cpuSampler != null) {
+            cpuSampler.stop();
+        }
+        if (memoryMonitor != null) {
+            memoryMonitor.stop();
+        }
+        this.memoryMonitor = MemoryMonitor.start(allocationBean);
+        this.cpuSampler = CpuSampler.start(cpuSamplingNanos);
         log.debug("Batch profiling started");
     }
 
@@ -60,35 +167,292 @@ public class BatchProfiler {
      * @return Métriques de performance
      */
     public PerformanceMetrics stop() {
-        long endTime = System.currentTimeMillis();
+        long totalNanos = System.nanoTime() - startNanos;
+        CpuSampler.Usage cpu = cpuSampler != null ? cpuSampler.stop() : new CpuSampler.Usage(0, 0.0, 0.0);
+        cpuSampler = null;
+        MemoryMonitor.Usage memory = memoryMonitor != null ? memoryMonitor.stop() : MemoryMonitor.Usage.NONE;
+        memoryMonitor = null;
         long endMemory = getUsedMemory();
 
-        long totalTimeMs = endTime - startTime;
+        long totalTimeMs = TimeUnit.NANOSECONDS.toMillis(totalNanos);
         long memoryUsedBytes = endMemory - startMemory;
-        double throughput = itemsProcessed > 0
-                ? (itemsProcessed / (totalTimeMs / 1000.0))
+        long itemsProcessed = this.itemsProcessed.sum();
+        double throughput = itemsProcessed > 0 && totalNanos > 0
+                ? (itemsProcessed / (totalNanos / 1_000_000_000.0))
                 : 0.0;
+        long workerCpu = workerCpuNanos.sum();
+        long cpuPerItem = itemsProcessed > 0 ? (workerCpu > 0 ? workerCpu : cpu.cpuNanos()) / itemsProcessed : 0;
+        long workerAllocated = workerAllocatedBytes.sum();
+        long bytesPerItem = itemsProcessed > 0
+                ? (workerAllocated > 0 ? workerAllocated : memory.allocatedBytes()) / itemsProcessed
+                : 0;
 
-        log.info("Batch profiling stopped: {}ms, {} MB, {} items/s",
+        log.info("Batch profiling stopped: {}ms, {} MB allocated, {} items/s, CPU {}% (peak {}%), {} GC ({}ms)",
                 totalTimeMs,
-                memoryUsedBytes / (1024 * 1024),
-                String.format("%.2f", throughput));
+                memory.allocatedBytes() / (1024 * 1024),
+                String.format("%.2f", throughput),
+                String.format("%.1f", cpu.averagePercent()),
+                String.format("%.1f", cpu.peakPercent()),
+                memory.collections(),
+                memory.pauseMillis());
 
         return PerformanceMetrics.builder()
                 .totalTimeMs(totalTimeMs)
                 .memoryUsedBytes(memoryUsedBytes)
                 .itemsProcessed(itemsProcessed)
                 .throughput(throughput)
+                .chunkSizes(List.copyOf(chunkSizes))
+                .itemLatency(itemLatency.snapshot())
+                .chunkLatency(chunkLatency.snapshot())
+                .totalTimeNanos(totalNanos)
+                .phases(rootPhase.childMetrics())
+                .cpuTimeNanos(cpu.cpuNanos())
+                .averageCpuPercent(cpu.averagePercent())
+                .peakCpuPercent(cpu.peakPercent())
+                .workerCpuTimeNanos(workerCpu)
+                .workerWallTimeNanos(workerWallNanos.sum())
+                .cpuTimePerItemNanos(cpuPerItem)
+                .workerCpuTimes(sums(cpuByWorker))
+                .allocatedBytes(memory.allocatedBytes())
+                .workerAllocatedBytes(workerAllocated)
+                .allocatedBytesPerItem(bytesPerItem)
+                .workerAllocations(sums(allocationsByWorker))
+                .gcCount(memory.collections())
+                .gcPauseTimeMs(memory.pauseMillis())
+                .maxGcPauseMs(memory.maxPauseMillis())
+                .memoryPoolPeaks(memory.poolPeaks())
                 .build();
     }
 
     /**
-     * Incrémente le compteur d'items traités.
+     * Ouvre une phase nommée, chronométrée jusqu'à sa fermeture.
+     *
+     * <p>La phase est une sous-phase de la phase ouverte la plus profonde du thread courant,
+     * ou une phase racine sinon. Les exécutions d'une même phase (même chemin depuis la
+     * racine) sont cumulées, quel que soit le thread. Coût : deux lectures d'horloge et
+     * quelques compteurs sans verrou.</p>
+     *
+     * @param name Nom de la phase
+     * @return Phase à fermer, idéalement par un bloc try-with-resources, sur le même thread
+     */
+    public Phase phase(String name) {
+        PhaseNode root = rootPhase;
+        PhaseNode parent = currentPhase.get();
+        if (parent == null || parent.root() != root) {
+            // Aucune phase ouverte, ou phase ouverte avant le dernier start()
+            parent = root;
+        }
+        PhaseNode node = parent.child(name);
+        currentPhase.set(node);
+        return new Phase(node, System.nanoTime());
+    }
+
+    /**
+     * Incrémente le compteur d'items traités. Thread-safe, sans contention entre workers.
      *
      * @param count Nombre d'items à ajouter
      */
-    public void addProcessedItems(int count) {
-        this.itemsProcessed += count;
+    public void addProcessedItems(long count) {
+        this.itemsProcessed.add(count);
+    }
+
+    /**
+     * Nombre d'items traités depuis {@link #start()}, à l'instant de l'appel
+     * (suivi de progression pendant le batch).
+     */
+    public long getProcessedItems() {
+        return itemsProcessed.sum();
+    }
+
+    /**
+     * Enregistre la durée de traitement d'un item. Thread-safe, sans verrou.
+     *
+     * @param nanos Durée en nanosecondes
+     */
+    public void recordItemTime(long nanos) {
+        itemLatency.record(nanos);
+    }
+
+    /**
+     * Enregistre la durée de traitement d'un chunk. Thread-safe, sans verrou.
+     *
+     * @param nanos Durée en nanosecondes
+     */
+    public void recordChunkTime(long nanos) {
+        chunkLatency.record(nanos);
+    }
+
+    /**
+     * Démarre la mesure d'un chunk sur le thread courant : durée, temps CPU et octets
+     * alloués, imputés au worker à l'appel de {@link ChunkTimer#stop()}.
+     *
+     * @return Mesure à arrêter sur le même thread, à la fin du chunk
+     */
+    public ChunkTimer startChunk() {
+        return new ChunkTimer(threadCpuTime(), threadAllocatedBytes(), System.nanoTime());
+    }
+
+    /**
+     * Enregistre les tailles de chunks retenues par l'ajustement automatique
+     * ({@code adaptiveChunking}), dans l'ordre où elles ont été choisies.
+     *
+     * @param sizes Tailles successives
+     */
+    public void recordChunkSizes(List<Integer> sizes) {
+        this.chunkSizes.addAll(sizes);
+    }
+
+    /**
+     * Mesure d'un chunk en cours, démarrée par {@link #startChunk()}.
+     */
+    public final class ChunkTimer {
+
+        private final long startCpuNanos;
+
+        private final long startAllocatedBytes;
+
+        private final long startNanos;
+
+        private ChunkTimer(long startCpuNanos, long startAllocatedBytes, long startNanos) {
+            this.startCpuNanos = startCpuNanos;
+            this.startAllocatedBytes = startAllocatedBytes;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Enregistre la durée du chunk, et le temps CPU et les allocations du worker quand
+         * ils sont mesurables (threads de plateforme).
+         */
+        public void stop() {
+            long nanos = System.nanoTime() - startNanos;
+            chunkLatency.record(nanos);
+            if (startCpuNanos < 0 && startAllocatedBytes < 0) {
+                return;
+            }
+            String worker = Thread.currentThread().getName();
+            if (startCpuNanos >= 0) {
+                long cpuNanos = threadCpuTime() - startCpuNanos;
+                workerWallNanos.add(nanos);
+                workerCpuNanos.add(cpuNanos);
+                counter(cpuByWorker, worker).add(cpuNanos);
+            }
+            if (startAllocatedBytes >= 0) {
+                long bytes = threadAllocatedBytes() - startAllocatedBytes;
+                workerAllocatedBytes.add(bytes);
+                counter(allocationsByWorker, worker).add(bytes);
+            }
+        }
+    }
+
+    /**
+     * Phase en cours, ouverte par {@link #phase(String)}.
+     */
+    public final class Phase implements AutoCloseable {
+
+        private final PhaseNode node;
+
+        private final long startNanos;
+
+        private boolean closed;
+
+        private Phase(PhaseNode node, long startNanos) {
+            this.node = node;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Enregistre la durée de la phase et rend la main à la phase parente.
+         * L'appel est idempotent.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            node.record(System.nanoTime() - startNanos);
+            PhaseNode parent = node.parent();
+            if (parent == null || parent.parent() == null) {
+                currentPhase.remove();
+            } else {
+                currentPhase.set(parent);
+            }
+        }
+    }
+
+    /**
+     * Temps CPU consommé par le thread courant, ou -1 s'il n'est pas mesurable (JVM sans
+     * support, thread virtuel).
+     */
+    private long threadCpuTime() {
+        if (!threadCpuTimeSupported || Thread.currentThread().isVirtual()) {
+            return -1;
+        }
+        return threadBean.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Octets alloués par le thread courant depuis sa création, ou -1 s'ils ne sont pas
+     * mesurables.
+     */
+    private long threadAllocatedBytes() {
+        if (allocationBean == null || Thread.currentThread().isVirtual()) {
+            return -1;
+        }
+        return allocationBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static LongAdder counter(Map<String, LongAdder> counters, String worker) {
+        LongAdder counter = counters.get(worker);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(worker, name -> new LongAdder());
+        }
+        return counter;
+    }
+
+    /**
+     * Totaux par worker, triés par nom de thread.
+     */
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> sums = new TreeMap<>();
+        counters.forEach((worker, counter) -> sums.put(worker, counter.sum()));
+        return sums;
+    }
+
+    /**
+     * Active la mesure du temps CPU par thread si la JVM la supporte.
+     */
+    private static boolean enableThreadCpuTime(ThreadMXBean bean) {
+        if (!bean.isCurrentThreadCpuTimeSupported()) {
+            return false;
+        }
+        try {
+            if (!bean.isThreadCpuTimeEnabled()) {
+                bean.setThreadCpuTimeEnabled(true);
+            }
+            return true;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            log.debug("Thread CPU time unavailable: {}", e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Active la mesure des allocations par thread si la JVM la supporte.
+     */
+    private static boolean enableAllocatedMemory(com.sun.management.ThreadMXBean bean) {
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        try {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return true;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            log.debug("Thread allocated memory unavailable: {}", e.toString());
+            return false;
+        }
     }
 
     /**
@@ -0,0 +1,135 @@
+package com.imadattar.batch.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Échantillonneur de la charge CPU du processus pendant un batch.
+ *
+ * <p>Un thread démon relève à intervalle régulier le temps CPU consommé par le processus
+ * ({@code com.sun.management.OperatingSystemMXBean#getProcessCpuTime}) ; la charge d'un
+ * intervalle est ce temps rapporté à la capacité de la machine (durée × nombre de cœurs).
+ * La moyenne est calculée sur toute la mesure, le pic sur les intervalles complets.</p>
+ *
+ * <p>Sur une JVM qui n'expose pas le temps CPU du processus, aucun thread n'est démarré et
+ * toutes les mesures valent 0.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+final class CpuSampler {
+
+    private final com.sun.management.OperatingSystemMXBean os;
+
+    private final long intervalNanos;
+
+    private final int processors;
+
+    private final long startNanos;
+
+    private final long startCpuNanos;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    /**
+     * Pic de charge, en pourcentage : écrit par le seul thread d'échantillonnage.
+     */
+    private volatile double peakPercent;
+
+    private long lastNanos;
+
+    private long lastCpuNanos;
+
+    private CpuSampler(com.sun.management.OperatingSystemMXBean os, long intervalNanos) {
+        this.os = os;
+        this.intervalNanos = intervalNanos;
+        this.processors = Math.max(1, os == null ? 1 : os.getAvailableProcessors());
+        this.startNanos = System.nanoTime();
+        this.startCpuNanos = processCpuTime();
+        this.lastNanos = startNanos;
+        this.lastCpuNanos = startCpuNanos;
+        if (os != null && startCpuNanos >= 0) {
+            this.thread = new Thread(this::run, "batch-cpu-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            this.thread = null;
+        }
+    }
+
+    /**
+     * Démarre l'échantillonnage.
+     *
+     * @param intervalNanos Intervalle entre deux relevés
+     */
+    static CpuSampler start(long intervalNanos) {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        return new CpuSampler(bean instanceof com.sun.management.OperatingSystemMXBean os ? os : null,
+                intervalNanos);
+    }
+
+    /**
+     * Arrête l'échantillonnage et retourne les mesures depuis le démarrage.
+     */
+    Usage stop() {
+        long endNanos = System.nanoTime();
+        long endCpuNanos = processCpuTime();
+        if (thread == null || endCpuNanos < 0) {
+            return new Usage(0, 0.0, 0.0);
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long cpuNanos = Math.max(0, endCpuNanos - startCpuNanos);
+        double average = percent(cpuNanos, endNanos - startNanos);
+        // Mesure plus courte qu'un intervalle : le pic est la moyenne
+        return new Usage(cpuNanos, average, Math.max(peakPercent, average));
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            long now = System.nanoTime();
+            if (!running || now - lastNanos < intervalNanos) {
+                continue;
+            }
+            long cpu = processCpuTime();
+            if (cpu >= 0) {
+                double load = percent(cpu - lastCpuNanos, now - lastNanos);
+                if (load > peakPercent) {
+                    peakPercent = load;
+                }
+                lastCpuNanos = cpu;
+            }
+            lastNanos = now;
+        }
+    }
+
+    private double percent(long cpuNanos, long wallNanos) {
+        if (wallNanos <= 0) {
+            return 0.0;
+        }
+        return Math.min(100.0, 100.0 * cpuNanos / ((double) wallNanos * processors));
+    }
+
+    private long processCpuTime() {
+        return os == null ? -1 : os.getProcessCpuTime();
+    }
+
+    /**
+     * Consommation CPU du processus sur la mesure.
+     *
+     * @param cpuNanos Temps CPU consommé, en nanosecondes
+     * @param averagePercent Charge moyenne, en pourcentage de la capacité de la machine
+     * @param peakPercent Charge maximale sur un intervalle
+     */
+    record Usage(long cpuNanos, double averagePercent, double peakPercent) {
+    }
+}
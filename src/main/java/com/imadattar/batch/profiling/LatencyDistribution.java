@@ -0,0 +1,128 @@
+package com.imadattar.batch.profiling;
+
+import java.time.Duration;
+
+/**
+ * Distribution figée de durées (traitement d'un item, d'un chunk...), issue d'un
+ * histogramme log-linéaire : les percentiles sont exacts à 1/64 près.
+ *
+ * <p>Le débit moyen masque les items lents ; ce sont pourtant eux qui fixent la durée
+ * d'un batch parallèle (le dernier chunk termine le batch). Comparer {@link #getP99()}
+ * et {@link #getMax()} à {@link #getP50()} pour les repérer.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public final class LatencyDistribution {
+
+    private static final LatencyDistribution EMPTY =
+            new LatencyDistribution(new long[LatencyHistogram.BUCKET_COUNT], 0, 0, 0);
+
+    private final long[] counts;
+
+    private final long count;
+
+    private final long minNanos;
+
+    private final long maxNanos;
+
+    private final long sumNanos;
+
+    LatencyDistribution(long[] counts, long minNanos, long maxNanos, long sumNanos) {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        this.counts = counts;
+        this.count = total;
+        this.minNanos = total > 0 ? minNanos : 0;
+        this.maxNanos = total > 0 ? maxNanos : 0;
+        this.sumNanos = sumNanos;
+    }
+
+    /**
+     * Distribution vide.
+     */
+    public static LatencyDistribution empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Nombre de durées enregistrées.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public Duration getMin() {
+        return Duration.ofNanos(minNanos);
+    }
+
+    public Duration getMax() {
+        return Duration.ofNanos(maxNanos);
+    }
+
+    public Duration getMean() {
+        return Duration.ofNanos(count > 0 ? sumNanos / count : 0);
+    }
+
+    public Duration getP50() {
+        return getPercentile(50);
+    }
+
+    public Duration getP90() {
+        return getPercentile(90);
+    }
+
+    public Duration getP99() {
+        return getPercentile(99);
+    }
+
+    public Duration getP999() {
+        return getPercentile(99.9);
+    }
+
+    /**
+     * Durée en dessous de laquelle se trouvent {@code percentile}% des valeurs.
+     *
+     * @param percentile Percentile, entre 0 et 100
+     * @return Milieu du compartiment du percentile, borné par le minimum et le maximum
+     *         observés ; {@link Duration#ZERO} si la distribution est vide
+     */
+    public Duration getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long value = LatencyHistogram.lowestValue(i) + LatencyHistogram.width(i) / 2;
+                return Duration.ofNanos(Math.max(minNanos, Math.min(maxNanos, value)));
+            }
+        }
+        return Duration.ofNanos(maxNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, min=%s, mean=%s, p50=%s, p90=%s, p99=%s, p99.9=%s, max=%s",
+                count, format(minNanos), format(getMean().toNanos()), format(getP50().toNanos()),
+                format(getP90().toNanos()), format(getP99().toNanos()), format(getP999().toNanos()),
+                format(maxNanos));
+    }
+
+    private static String format(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1fµs", nanos / 1_000.0);
+        }
+        return String.format("%.1fms", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,131 @@
+package com.imadattar.batch.profiling;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme log-linéaire de durées, en nanosecondes, alimenté sans verrou par les workers.
+ *
+ * <p>Les durées sont rangées dans des compartiments dont la largeur croît avec la valeur
+ * (à la manière de HdrHistogram) : {@value #SUB_BUCKET_COUNT} compartiments exacts en
+ * dessous de {@value #SUB_BUCKET_COUNT} ns, puis {@value #SUB_BUCKET_HALF_COUNT}
+ * compartiments par puissance de 2, soit une erreur relative d'au plus 1/64 sur toute la
+ * plage des {@code long}. La mémoire est fixe : {@value #BUCKET_COUNT} compteurs par
+ * bande, quel que soit le nombre de valeurs.</p>
+ *
+ * <p>Les compteurs sont répartis en bandes ; chaque thread écrit dans la bande associée à
+ * son identifiant, si bien que les workers d'un pool ne se disputent pas les mêmes lignes
+ * de cache. Les bandes ne sont fusionnées qu'à la lecture ({@link #snapshot()}).</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 6;
+
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+    /**
+     * Compartiments exacts, puis une demi-série par bit de poids fort au-delà.
+     */
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+    private static final int MAX_STRIPES = 16;
+
+    private final AtomicLongArray[] stripes;
+
+    private final int stripeMask;
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int count = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, processors - 1)) << 1);
+        this.stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * Enregistre une durée. Une durée négative compte pour 0.
+     */
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        stripe().incrementAndGet(indexOf(value));
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Remet l'histogramme à zéro. Les enregistrements concurrents peuvent être perdus.
+     */
+    void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+
+    /**
+     * Fusionne les bandes en une distribution figée.
+     */
+    LatencyDistribution snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return new LatencyDistribution(counts, min.get(), max.get(), sum.sum());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+        return SUB_BUCKET_COUNT + (highestBit - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT + subBucket;
+    }
+
+    /**
+     * Plus petite valeur du compartiment {@code index}.
+     */
+    static long lowestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int bucket = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return (long) subBucket << (bucket + 1);
+    }
+
+    /**
+     * Largeur du compartiment {@code index}.
+     */
+    static long width(int index) {
+        return index < SUB_BUCKET_COUNT ? 1 : 1L << ((index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1);
+    }
+
+    private AtomicLongArray stripe() {
+        long id = Thread.currentThread().threadId();
+        // Mélange de Fibonacci : des identifiants consécutifs tombent dans des bandes différentes
+        return stripes[(int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & stripeMask];
+    }
+}
@@ -0,0 +1,167 @@
+package com.imadattar.batch.profiling;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Suivi des allocations et des pauses GC pendant un batch.
+ *
+ * <ul>
+ *     <li>Octets alloués par tous les threads ({@code com.sun.management.ThreadMXBean}),
+ *     y compris ceux terminés pendant la mesure ;</li>
+ *     <li>Nombre de collections et durée cumulée des pauses ({@link GarbageCollectorMXBean}),
+ *     hors cycles concurrents des collecteurs à faible latence (ZGC, Shenandoah), qui
+ *     n'arrêtent pas l'application ;</li>
+ *     <li>Pause la plus longue, d'après les notifications de fin de collection ;</li>
+ *     <li>Pic d'occupation de chaque pool mémoire. Les pics sont réinitialisés au démarrage,
+ *     pour toute la JVM.</li>
+ * </ul>
+ *
+ * <p>Contrairement à la différence de mémoire utilisée entre le début et la fin, ces
+ * mesures ne dépendent pas du moment où le GC passe. Les notifications étant délivrées de
+ * façon asynchrone, une collection terminée juste avant l'arrêt peut manquer au calcul de
+ * la pause maximale (mais pas au nombre ni à la durée cumulée).</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+final class MemoryMonitor {
+
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    private final List<GarbageCollectorMXBean> collectors;
+
+    private final long startAllocatedBytes;
+
+    private final long startCollections;
+
+    private final long startCollectionMillis;
+
+    private final LongAccumulator maxPauseMillis = new LongAccumulator(Math::max, 0);
+
+    private final NotificationListener listener = this::onNotification;
+
+    private MemoryMonitor(com.sun.management.ThreadMXBean threadBean) {
+        this.threadBean = threadBean;
+        this.collectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .filter(MemoryMonitor::isPause)
+                .toList();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+            }
+        }
+        this.startAllocatedBytes = allocatedBytes();
+        this.startCollections = collections();
+        this.startCollectionMillis = collectionMillis();
+    }
+
+    /**
+     * Démarre le suivi.
+     *
+     * @param threadBean Bean des threads dont la mesure des allocations est activée, ou
+     *                   {@code null} si la JVM ne la supporte pas
+     */
+    static MemoryMonitor start(com.sun.management.ThreadMXBean threadBean) {
+        return new MemoryMonitor(threadBean);
+    }
+
+    /**
+     * Arrête le suivi et retourne les mesures depuis le démarrage.
+     */
+    Usage stop() {
+        long allocated = allocatedBytes();
+        long collections = collections() - startCollections;
+        long collectionMillis = collectionMillis() - startCollectionMillis;
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter emitter) {
+                try {
+                    emitter.removeNotificationListener(listener);
+                } catch (ListenerNotFoundException e) {
+                    // Déjà retiré
+                }
+            }
+        }
+        Map<String, Long> peaks = new TreeMap<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.isValid()) {
+                peaks.put(pool.getName(), pool.getPeakUsage().getUsed());
+            }
+        }
+        return new Usage(
+                allocated >= 0 && startAllocatedBytes >= 0 ? allocated - startAllocatedBytes : 0,
+                collections,
+                collectionMillis,
+                maxPauseMillis.get(),
+                peaks);
+    }
+
+    private void onNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (!info.getGcAction().contains("cycle")) {
+            maxPauseMillis.accumulate(info.getGcInfo().getDuration());
+        }
+    }
+
+    /**
+     * Un collecteur dont les collections arrêtent l'application : les beans des cycles
+     * concurrents ({@code ZGC Major Cycles}, {@code Shenandoah Cycles}) sont exclus.
+     */
+    private static boolean isPause(GarbageCollectorMXBean collector) {
+        return !collector.getName().endsWith("Cycles");
+    }
+
+    private long allocatedBytes() {
+        return threadBean == null ? -1 : threadBean.getTotalThreadAllocatedBytes();
+    }
+
+    private long collections() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionCount());
+        }
+        return total;
+    }
+
+    private long collectionMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * Allocations et GC sur la mesure.
+     *
+     * @param allocatedBytes Octets alloués par tous les threads
+     * @param collections Nombre de collections avec pause
+     * @param pauseMillis Durée cumulée des pauses, en millisecondes
+     * @param maxPauseMillis Pause la plus longue, en millisecondes
+     * @param poolPeaks Pic d'occupation par pool mémoire, en octets
+     */
+    record Usage(long allocatedBytes, long collections, long pauseMillis, long maxPauseMillis,
+                 Map<String, Long> poolPeaks) {
+
+        static final Usage NONE = new Usage(0, 0, 0, 0, Map.of());
+    }
+}
@@ -3,6 +3,9 @@ package com.imadattar.batch.profiling;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Métriques de performance pour un batch.
  *
@@ -19,20 +22,137 @@ public class PerformanceMetrics {
     private final long totalTimeMs;
 
     /**
-     * Mémoire utilisée en bytes.
+     * Temps total d'exécution en nanosecondes (horloge monotone).
+     */
+    private final long totalTimeNanos;
+
+    /**
+     * Différence de mémoire utilisée (heap + non-heap) entre le début et la fin, en bytes.
+     * Elle dépend surtout du moment où le GC est passé, et peut être négative : pour régler
+     * un batch, préférer {@link #getAllocatedBytes()} et {@link #getGcPauseTimeMs()}.
      */
     private final long memoryUsedBytes;
 
     /**
      * Nombre d'items traités.
      */
-    private final int itemsProcessed;
+    private final long itemsProcessed;
 
     /**
      * Throughput (items par seconde).
      */
     private final double throughput;
 
+    /**
+     * Tailles de chunks retenues par l'ajustement automatique, dans l'ordre
+     * (vide si {@code adaptiveChunking} n'est pas activé).
+     */
+    @Builder.Default
+    private final List<Integer> chunkSizes = List.of();
+
+    /**
+     * Distribution des temps de traitement par item (vide si aucun n'a été enregistré).
+     */
+    @Builder.Default
+    private final LatencyDistribution itemLatency = LatencyDistribution.empty();
+
+    /**
+     * Distribution des temps de traitement par chunk (vide si aucun n'a été enregistré).
+     */
+    @Builder.Default
+    private final LatencyDistribution chunkLatency = LatencyDistribution.empty();
+
+    /**
+     * Arbre des phases ({@link BatchProfiler#phase(String)}) : phases racines, par durée
+     * cumulée décroissante.
+     */
+    @Builder.Default
+    private final List<PhaseMetrics> phases = List.of();
+
+    /**
+     * Temps CPU consommé par le processus pendant la mesure (workers, GC, JIT...), en
+     * nanosecondes.
+     */
+    private final long cpuTimeNanos;
+
+    /**
+     * Charge CPU moyenne du processus, en pourcentage de la capacité de la machine
+     * (100 % : tous les cœurs occupés pendant toute la mesure).
+     */
+    private final double averageCpuPercent;
+
+    /**
+     * Charge CPU maximale du processus sur un intervalle d'échantillonnage, en pourcentage
+     * de la capacité de la machine.
+     */
+    private final double peakCpuPercent;
+
+    /**
+     * Temps CPU consommé par les workers pour exécuter les chunks, en nanosecondes.
+     */
+    private final long workerCpuTimeNanos;
+
+    /**
+     * Durée cumulée des chunks dont le temps CPU a été mesuré, en nanosecondes.
+     */
+    private final long workerWallTimeNanos;
+
+    /**
+     * Temps CPU par item, en nanosecondes : celui des workers s'il a été mesuré, sinon
+     * celui du processus.
+     */
+    private final long cpuTimePerItemNanos;
+
+    /**
+     * Temps CPU par worker (nom du thread), en nanosecondes.
+     */
+    @Builder.Default
+    private final Map<String, Long> workerCpuTimes = Map.of();
+
+    /**
+     * Octets alloués dans le heap par tous les threads pendant la mesure.
+     */
+    private final long allocatedBytes;
+
+    /**
+     * Octets alloués par les workers pour exécuter les chunks.
+     */
+    private final long workerAllocatedBytes;
+
+    /**
+     * Octets alloués par item : ceux des workers s'ils ont été mesurés, sinon ceux de tous
+     * les threads.
+     */
+    private final long allocatedBytesPerItem;
+
+    /**
+     * Octets alloués par worker (nom du thread).
+     */
+    @Builder.Default
+    private final Map<String, Long> workerAllocations = Map.of();
+
+    /**
+     * Nombre de collections avec pause pendant la mesure.
+     */
+    private final long gcCount;
+
+    /**
+     * Durée cumulée des pauses GC, en millisecondes.
+     */
+    private final long gcPauseTimeMs;
+
+    /**
+     * Pause GC la plus longue, en millisecondes.
+     */
+    private final long maxGcPauseMs;
+
+    /**
+     * Pic d'occupation de chaque pool mémoire (Eden, Old Gen, Metaspace...) pendant la
+     * mesure, en bytes.
+     */
+    @Builder.Default
+    private final Map<String, Long> memoryPoolPeaks = Map.of();
+
     /**
      * Retourne le temps total en secondes.
      */
@@ -47,15 +167,92 @@ public class PerformanceMetrics {
         return memoryUsedBytes / (1024.0 * 1024.0);
     }
 
+    /**
+     * Débit d'allocation, en bytes par seconde : au-delà de quelques centaines de MB/s, le
+     * GC devient le premier poste de coût.
+     */
+    public double getAllocationRate() {
+        return totalTimeNanos > 0 ? allocatedBytes / (totalTimeNanos / 1_000_000_000.0) : 0.0;
+    }
+
+    /**
+     * Part du temps passée en pauses GC, en pourcentage de la durée totale.
+     */
+    public double getGcOverheadPercent() {
+        double totalMs = totalTimeNanos / 1_000_000.0;
+        return totalMs > 0 ? Math.min(100.0, 100.0 * gcPauseTimeMs / totalMs) : 0.0;
+    }
+
+    /**
+     * Rapport entre la durée des chunks et le temps CPU qu'ils ont consommé, ou 0 s'il n'a
+     * pas été mesuré.
+     *
+     * <ul>
+     *     <li>Proche de 1 : les workers calculent en continu. Si la charge CPU moyenne est
+     *     elle aussi proche de 100 %, le batch est limité par le CPU ; si elle reste basse,
+     *     il manque des workers.</li>
+     *     <li>Nettement supérieur à 1 : les workers attendent (I/O, verrous, file d'attente
+     *     du pool). Un pool de {@code cœurs × blockingRatio} threads les occuperait.</li>
+     * </ul>
+     */
+    public double getBlockingRatio() {
+        return workerCpuTimeNanos > 0 ? (double) workerWallTimeNanos / workerCpuTimeNanos : 0.0;
+    }
+
+    /**
+     * Phase racine de ce nom, ou {@code null}.
+     */
+    public PhaseMetrics getPhase(String name) {
+        for (PhaseMetrics phase : phases) {
+            if (phase.getName().equals(name)) {
+                return phase;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Arbre des phases, une ligne par phase, indentée selon la profondeur.
+     */
+    public String getPhaseTree() {
+        StringBuilder sb = new StringBuilder();
+        for (PhaseMetrics phase : phases) {
+            phase.appendTree(sb, 0);
+        }
+        return sb.toString();
+    }
+
     @Override
     public String toString() {
-        return String.format(
-                "PerformanceMetrics{totalTime=%dms (%.2fs), memory=%.2fMB, items=%d, throughput=%.2f items/s}",
+        String summary = String.format(
+                "PerformanceMetrics{totalTime=%dms (%.2fs), memory=%.2fMB, items=%d, throughput=%.2f items/s",
                 totalTimeMs,
                 getTotalTimeSeconds(),
                 getMemoryUsedMB(),
                 itemsProcessed,
                 throughput
         );
+        StringBuilder sb = new StringBuilder(summary);
+        if (cpuTimeNanos > 0) {
+            sb.append(String.format(", cpu=%.1f%% (peak %.1f%%)", averageCpuPercent, peakCpuPercent));
+        }
+        if (workerCpuTimeNanos > 0) {
+            sb.append(String.format(", cpuPerItem=%dns, blockingRatio=%.2f", cpuTimePerItemNanos, getBlockingRatio()));
+        }
+        if (allocatedBytes > 0) {
+            sb.append(String.format(", allocated=%.2fMB (%.2f MB/s, %d B/item)",
+                    allocatedBytes / (1024.0 * 1024.0), getAllocationRate() / (1024.0 * 1024.0), allocatedBytesPerItem));
+        }
+        if (gcCount > 0) {
+            sb.append(String.format(", gc=%d (%dms, max %dms, %.2f%%)",
+                    gcCount, gcPauseTimeMs, maxGcPauseMs, getGcOverheadPercent()));
+        }
+        if (itemLatency.getCount() > 0) {
+            sb.append(", itemLatency=[").append(itemLatency).append(']');
+        }
+        if (chunkLatency.getCount() > 0) {
+            sb.append(", chunkLatency=[").append(chunkLatency).append(']');
+        }
+        return sb.append('}').toString();
     }
 }
@@ -0,0 +1,102 @@
+package com.imadattar.batch.profiling;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Durées d'une phase nommée du batch ({@link BatchProfiler#phase(String)}), cumulées sur
+ * tous les threads qui l'ont exécutée, avec ses sous-phases.
+ *
+ * <p>Lecture : une phase exécutée par plusieurs workers peut cumuler plus de temps que la
+ * durée du batch. Le temps propre ({@link #getSelfTime()}) est celui qui n'est attribué à
+ * aucune sous-phase.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Getter
+@Builder
+public class PhaseMetrics {
+
+    private final String name;
+
+    /**
+     * Nombre d'exécutions de la phase.
+     */
+    private final long count;
+
+    /**
+     * Durée cumulée de toutes les exécutions.
+     */
+    private final Duration totalTime;
+
+    /**
+     * Durée de l'exécution la plus longue.
+     */
+    private final Duration maxTime;
+
+    /**
+     * Sous-phases, par durée cumulée décroissante.
+     */
+    @Builder.Default
+    private final List<PhaseMetrics> children = List.of();
+
+    /**
+     * Durée moyenne d'une exécution.
+     */
+    public Duration getMeanTime() {
+        return count > 0 ? totalTime.dividedBy(count) : Duration.ZERO;
+    }
+
+    /**
+     * Durée cumulée hors sous-phases.
+     */
+    public Duration getSelfTime() {
+        Duration self = totalTime;
+        for (PhaseMetrics child : children) {
+            self = self.minus(child.getTotalTime());
+        }
+        return self.isNegative() ? Duration.ZERO : self;
+    }
+
+    /**
+     * Sous-phase directe de ce nom, ou {@code null}.
+     */
+    public PhaseMetrics getChild(String childName) {
+        for (PhaseMetrics child : children) {
+            if (child.getName().equals(childName)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Arbre de la phase et de ses sous-phases, une ligne par phase.
+     */
+    public String toTreeString() {
+        StringBuilder sb = new StringBuilder();
+        appendTree(sb, 0);
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: total=%.3fms, count=%d, mean=%.3fms, max=%.3fms, self=%.3fms",
+                name, millis(totalTime), count, millis(getMeanTime()), millis(maxTime), millis(getSelfTime()));
+    }
+
+    void appendTree(StringBuilder sb, int depth) {
+        sb.append("  ".repeat(depth)).append(this).append('\n');
+        for (PhaseMetrics child : children) {
+            child.appendTree(sb, depth + 1);
+        }
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.imadattar.batch.profiling;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nœud de l'arbre des phases d'un {@link BatchProfiler} : durées cumulées, tous threads
+ * confondus, d'une phase identifiée par son chemin depuis la racine.
+ *
+ * <p>Alimenté sans verrou par tous les threads : compteurs répartis ({@link LongAdder}) et
+ * enfants dans une {@link ConcurrentHashMap}, dont la lecture d'un enfant existant ne
+ * verrouille pas.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+final class PhaseNode {
+
+    private final String name;
+
+    private final PhaseNode parent;
+
+    private final PhaseNode root;
+
+    private final Map<String, PhaseNode> children = new ConcurrentHashMap<>();
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    PhaseNode(String name, PhaseNode parent) {
+        this.name = name;
+        this.parent = parent;
+        this.root = parent == null ? this : parent.root;
+    }
+
+    PhaseNode parent() {
+        return parent;
+    }
+
+    /**
+     * Racine de l'arbre, propre à une session de profiling.
+     */
+    PhaseNode root() {
+        return root;
+    }
+
+    PhaseNode child(String childName) {
+        PhaseNode child = children.get(childName);
+        return child != null ? child : children.computeIfAbsent(childName, key -> new PhaseNode(key, this));
+    }
+
+    void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Métriques des enfants, par durée cumulée décroissante.
+     */
+    List<PhaseMetrics> childMetrics() {
+        List<PhaseMetrics> metrics = new ArrayList<>(children.size());
+        for (PhaseNode child : children.values()) {
+            metrics.add(child.metrics());
+        }
+        metrics.sort(Comparator.comparing(PhaseMetrics::getTotalTime).reversed());
+        return List.copyOf(metrics);
+    }
+
+    private PhaseMetrics metrics() {
+        return PhaseMetrics.builder()
+                .name(name)
+                .count(count.sum())
+                .totalTime(Duration.ofNanos(totalNanos.sum()))
+                .maxTime(Duration.ofNanos(maxNanos.get()))
+                .children(childMetrics())
+                .build();
+    }
+}
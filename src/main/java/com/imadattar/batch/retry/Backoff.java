@@ -0,0 +1,21 @@
+package com.imadattar.batch.retry;
+
+import java.time.Duration;
+
+/**
+ * Stratégie de calcul du délai avant une nouvelle tentative.
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface Backoff {
+
+    /**
+     * Calcule le délai à attendre après l'échec de la tentative {@code attempt}.
+     *
+     * @param attempt Numéro de la tentative en échec (1 pour la première)
+     * @return Délai avant la tentative suivante, jamais négatif
+     */
+    Duration delay(int attempt);
+}
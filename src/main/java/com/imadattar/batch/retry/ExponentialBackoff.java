@@ -0,0 +1,102 @@
+package com.imadattar.batch.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Délai croissant de façon exponentielle (1s, 2s, 4s, 8s...), plafonné.
+ *
+ * <p>Une part aléatoire ({@code jitter}) peut être retranchée de chaque délai : des éléments
+ * en échec au même moment, typiquement lors d'une indisponibilité du système appelé, ne
+ * réessaient alors pas tous simultanément à sa reprise.</p>
+ *
+ * <pre>{@code
+ * Backoff backoff = ExponentialBackoff.withInitialDelay(100)
+ *         .withMaxDelay(Duration.ofSeconds(30))
+ *         .withJitter(0.5);   // délai tiré entre 50% et 100% du délai exponentiel
+ * }</pre>
+ *
+ * <p>Instances immuables : chaque méthode {@code with...} retourne une nouvelle instance.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public final class ExponentialBackoff implements Backoff {
+
+    /**
+     * Plafond par défaut, aligné sur {@code batch.retry.max-delay}.
+     */
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(30);
+
+    private final Duration initialDelay;
+
+    private final double multiplier;
+
+    private final Duration maxDelay;
+
+    private final double jitter;
+
+    private ExponentialBackoff(Duration initialDelay, double multiplier, Duration maxDelay, double jitter) {
+        if (initialDelay.isNegative() || maxDelay.isNegative()) {
+            throw new IllegalArgumentException("Delays must not be negative");
+        }
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("multiplier must be >= 1: " + multiplier);
+        }
+        if (jitter < 0.0 || jitter > 1.0) {
+            throw new IllegalArgumentException("jitter must be between 0 and 1: " + jitter);
+        }
+        this.initialDelay = initialDelay;
+        this.multiplier = multiplier;
+        this.maxDelay = maxDelay;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Backoff doublant à chaque tentative, plafonné à 30 secondes, sans jitter.
+     *
+     * @param initialDelayMs Délai après le premier échec, en millisecondes
+     */
+    public static ExponentialBackoff withInitialDelay(long initialDelayMs) {
+        return new ExponentialBackoff(Duration.ofMillis(initialDelayMs), 2.0, DEFAULT_MAX_DELAY, 0.0);
+    }
+
+    /**
+     * @param multiplier Facteur appliqué au délai à chaque tentative (au moins 1)
+     */
+    public ExponentialBackoff withMultiplier(double multiplier) {
+        return new ExponentialBackoff(initialDelay, multiplier, maxDelay, jitter);
+    }
+
+    /**
+     * @param maxDelay Plafond du délai, avant application du jitter
+     */
+    public ExponentialBackoff withMaxDelay(Duration maxDelay) {
+        return new ExponentialBackoff(initialDelay, multiplier, maxDelay, jitter);
+    }
+
+    /**
+     * @param jitter Part maximale du délai retranchée au hasard, entre 0 (aucune) et 1
+     *               (délai tiré entre 0 et le délai exponentiel)
+     */
+    public ExponentialBackoff withJitter(double jitter) {
+        return new ExponentialBackoff(initialDelay, multiplier, maxDelay, jitter);
+    }
+
+    @Override
+    public Duration delay(int attempt) {
+        // Calcul en double : pas de dépassement de capacité pour les grands numéros de tentative
+        double exponential = initialDelay.toNanos() * Math.pow(multiplier, Math.max(0, attempt - 1));
+        double capped = Math.min(exponential, maxDelay.toNanos());
+        if (jitter > 0.0) {
+            capped -= capped * jitter * ThreadLocalRandom.current().nextDouble();
+        }
+        return Duration.ofNanos((long) capped);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExponentialBackoff{initialDelay=%s, multiplier=%.1f, maxDelay=%s, jitter=%.2f}",
+                initialDelay, multiplier, maxDelay, jitter);
+    }
+}
@@ -0,0 +1,38 @@
+package com.imadattar.batch.retry;
+
+import java.time.Duration;
+
+/**
+ * Délai constant entre deux tentatives.
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public final class FixedBackoff implements Backoff {
+
+    private final Duration delay;
+
+    private FixedBackoff(Duration delay) {
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("delay must not be negative: " + delay);
+        }
+        this.delay = delay;
+    }
+
+    /**
+     * @param delayMs Délai entre deux tentatives, en millisecondes
+     */
+    public static FixedBackoff of(long delayMs) {
+        return new FixedBackoff(Duration.ofMillis(delayMs));
+    }
+
+    @Override
+    public Duration delay(int attempt) {
+        return delay;
+    }
+
+    @Override
+    public String toString() {
+        return "FixedBackoff{delay=" + delay + "}";
+    }
+}
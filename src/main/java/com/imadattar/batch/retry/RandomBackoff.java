@@ -0,0 +1,45 @@
+package com.imadattar.batch.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Délai tiré au hasard dans un intervalle : des clients en échec simultané ne réessaient
+ * pas tous au même instant (thundering herd).
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+public final class RandomBackoff implements Backoff {
+
+    private final long minDelayMs;
+
+    private final long maxDelayMs;
+
+    private RandomBackoff(long minDelayMs, long maxDelayMs) {
+        if (minDelayMs < 0 || maxDelayMs < minDelayMs) {
+            throw new IllegalArgumentException(
+                    "Invalid delay range: [" + minDelayMs + ", " + maxDelayMs + "]");
+        }
+        this.minDelayMs = minDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /**
+     * @param minDelayMs Délai minimum, en millisecondes
+     * @param maxDelayMs Délai maximum (inclus), en millisecondes
+     */
+    public static RandomBackoff between(long minDelayMs, long maxDelayMs) {
+        return new RandomBackoff(minDelayMs, maxDelayMs);
+    }
+
+    @Override
+    public Duration delay(int attempt) {
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(minDelayMs, maxDelayMs + 1));
+    }
+
+    @Override
+    public String toString() {
+        return "RandomBackoff{min=" + minDelayMs + "ms, max=" + maxDelayMs + "ms}";
+    }
+}
@@ -0,0 +1,163 @@
+package com.imadattar.batch.retry;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+
+/**
+ * Politique de nouvelle tentative : nombre de tentatives, délai entre deux tentatives et
+ * classification des exceptions.
+ *
+ * <h2>Classification</h2>
+ * <ul>
+ *     <li>une exception de {@code stopOn} (ou d'une sous-classe) n'est jamais rejouée ;</li>
+ *     <li>sinon, si {@code retryOn} est renseigné, seules ses exceptions sont rejouées ;
+ *     sinon toute {@link Exception} l'est ;</li>
+ *     <li>{@code retryIf}, s'il est renseigné, doit en plus accepter l'exception
+ *     (ex : code HTTP 503 porté par l'exception) ;</li>
+ *     <li>une {@link Error} n'est jamais rejouée.</li>
+ * </ul>
+ *
+ * <h2>Exemple d'utilisation</h2>
+ * <pre>{@code
+ * RetryPolicy retry = RetryPolicy.builder()
+ *     .maxAttempts(3)
+ *     .backoff(ExponentialBackoff.withInitialDelay(1000).withJitter(0.5))
+ *     .retryOn(IOException.class, SQLException.class)
+ *     .stopOn(ValidationException.class)
+ *     .build();
+ *
+ * Result result = retry.execute(() -> callUnreliableService());
+ * }</pre>
+ *
+ * <p>{@link #execute(Callable)} attend le délai dans le thread appelant. Passée à
+ * {@code ParallelBatchProcessor}, la même politique est appliquée sans bloquer les
+ * workers : les tentatives sont replanifiées sur un timer.</p>
+ *
+ * @author Imad ATTAR
+ * @since 1.1.0
+ */
+@Slf4j
+@Getter
+@Builder
+public class RetryPolicy {
+
+    /**
+     * Nombre total de tentatives, première exécution comprise.
+     */
+    @Builder.Default
+    private final int maxAttempts = 3;
+
+    /**
+     * Délai entre deux tentatives.
+     */
+    @Builder.Default
+    private final Backoff backoff = ExponentialBackoff.withInitialDelay(1000);
+
+    /**
+     * Exceptions à rejouer (toutes les {@link Exception} si vide).
+     */
+    private final List<Class<? extends Throwable>> retryOn;
+
+    /**
+     * Exceptions fatales, jamais rejouées.
+     */
+    private final List<Class<? extends Throwable>> stopOn;
+
+    /**
+     * Condition supplémentaire sur l'exception (optionnelle).
+     */
+    private final Predicate<? super Throwable> retryIf;
+
+    /**
+     * Indique si l'exception justifie une nouvelle tentative, indépendamment du nombre de
+     * tentatives déjà effectuées.
+     */
+    public boolean isRetryable(Throwable failure) {
+        if (!(failure instanceof Exception) || matches(stopOn, failure)) {
+            return false;
+        }
+        if (retryOn != null && !retryOn.isEmpty() && !matches(retryOn, failure)) {
+            return false;
+        }
+        return retryIf == null || retryIf.test(failure);
+    }
+
+    /**
+     * Indique si une nouvelle tentative doit suivre l'échec de la tentative {@code attempt}.
+     *
+     * @param failure Exception levée par la tentative
+     * @param attempt Numéro de la tentative en échec (1 pour la première)
+     */
+    public boolean shouldRetry(Throwable failure, int attempt) {
+        return attempt < maxAttempts && isRetryable(failure);
+    }
+
+    /**
+     * Délai à attendre après l'échec de la tentative {@code attempt}.
+     */
+    public Duration delayBeforeRetry(int attempt) {
+        return backoff.delay(attempt);
+    }
+
+    /**
+     * Exécute l'action, en la rejouant selon la politique.
+     *
+     * @param action Opération potentiellement instable (API, base de données...)
+     * @param <V> Type du résultat
+     * @return Résultat de la première tentative réussie
+     * @throws Exception l'exception de la dernière tentative, si aucune n'a réussi ou si
+     *         l'exception n'est pas rejouable
+     * @throws InterruptedException si le thread est interrompu pendant l'attente
+     */
+    public <V> V execute(Callable<V> action) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.call();
+            } catch (Exception e) {
+                if (!shouldRetry(e, attempt)) {
+                    throw e;
+                }
+                Duration delay = delayBeforeRetry(attempt);
+                log.debug("Attempt {}/{} failed ({}), retrying in {}ms",
+                        attempt, maxAttempts, e.toString(), delay.toMillis());
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    private static boolean matches(List<Class<? extends Throwable>> types, Throwable failure) {
+        if (types == null) {
+            return false;
+        }
+        for (Class<? extends Throwable> type : types) {
+            if (type.isInstance(failure)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builder généré par Lombok, complété de variantes varargs pour la classification.
+     */
+    public static class RetryPolicyBuilder {
+
+        @SafeVarargs
+        public final RetryPolicyBuilder retryOn(Class<? extends Throwable>... types) {
+            this.retryOn = List.of(types);
+            return this;
+        }
+
+        @SafeVarargs
+        public final RetryPolicyBuilder stopOn(Class<? extends Throwable>... types) {
+            this.stopOn = List.of(types);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.imadattar.batch;
+
+import com.imadattar.batch.optimization.BatchOptimizer;
+import com.imadattar.batch.profiling.BatchProfiler;
+import com.imadattar.batch.profiling.PerformanceMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests pour BatchOptimizer.
+ *
+ * @author Imad ATTAR
+ */
+class BatchOptimizerTest {
+
+    @Test
+    void shouldShrinkChunksWhenHeapNearsBudget() throws ExecutionException, InterruptedException {
+        // Given : chaque élément en cours de traitement occupe 1 Ko d'un budget de 1 Mo
+        AtomicLong heap = new AtomicLong();
+        BatchProfiler profiler = new BatchProfiler();
+        profiler.start();
+
+        try (BatchOptimizer optimizer = BatchOptimizer.builder()
+                .maxMemoryMB(1)
+                .parallelism(4)
+                .initialChunkSize(1000)
+                .heapUsage(heap::get)
+                .profiler(profiler)
+                .build()) {
+
+            // When
+            List<Integer> firstItems = optimizer.processInChunks(IntStream.range(0, 20_000).boxed(), chunk -> {
+                heap.addAndGet(chunk.size() * 1024L);
+                sleep(2);
+                heap.addAndGet(-chunk.size() * 1024L);
+                return chunk.get(0);
+            });
+
+            // Then : résultats dans l'ordre de la source, tailles réduites
+            assertThat(firstItems).isSorted();
+            assertThat(firstItems.get(0)).isEqualTo(0);
+            PerformanceMetrics metrics = profiler.stop();
+            assertThat(metrics.getItemsProcessed()).isEqualTo(20_000);
+            assertThat(metrics.getChunkSizes().get(0)).isEqualTo(1000);
+            assertThat(metrics.getChunkSizes().stream().mapToInt(Integer::intValue).min().getAsInt())
+                    .isLessThan(1000)
+                    .isGreaterThanOrEqualTo(16);
+        }
+    }
+
+    @Test
+    void shouldGrowChunksBackWhenHeapIsLow() throws ExecutionException, InterruptedException {
+        // Given
+        BatchProfiler profiler = new BatchProfiler();
+        profiler.start();
+
+        try (BatchOptimizer optimizer = BatchOptimizer.builder()
+                .maxMemoryMB(100)
+                .parallelism(2)
+                .initialChunkSize(100)
+                .maxChunkSize(5_000)
+                .heapUsage(() -> 0L)
+                .profiler(profiler)
+                .build()) {
+
+            // When
+            optimizer.processInChunks(IntStream.range(0, 100_000).boxed(), List::size);
+
+            // Then
+            List<Integer> sizes = profiler.stop().getChunkSizes();
+            assertThat(sizes.get(0)).isEqualTo(100);
+            assertThat(sizes).isSorted();
+            assertThat(sizes.get(sizes.size() - 1)).isEqualTo(5_000);
+        }
+    }
+
+    @Test
+    void shouldNotRetainChunkResultsInStreamingMode() throws ExecutionException, InterruptedException {
+        // Given
+        AtomicLong sum = new AtomicLong();
+
+        try (BatchOptimizer optimizer = BatchOptimizer.builder()
+                .streamingMode(true)
+                .build()) {
+
+            // When
+            List<Object> results = optimizer.processInChunks(IntStream.range(0, 10_000).boxed(), chunk -> {
+                chunk.forEach(sum::addAndGet);
+                return chunk;
+            });
+
+            // Then
+            assertThat(results).isEmpty();
+            assertThat(sum.get()).isEqualTo(10_000L * 9_999 / 2);
+        }
+    }
+
+    @Test
+    void shouldNotThrottleOnShortLivedGarbage() throws ExecutionException, InterruptedException {
+        // Given : mesure par défaut (heap après GC), chaque chunk alloue 4 Mo aussitôt abandonnés
+        BatchProfiler profiler = new BatchProfiler();
+        profiler.start();
+
+        try (BatchOptimizer optimizer = BatchOptimizer.builder()
+                .parallelism(4)
+                .initialChunkSize(100)
+                .maxChunkSize(100)
+                .profiler(profiler)
+                .build()) {
+
+            // When
+            optimizer.processInChunks(IntStream.range(0, 50_000).boxed(), chunk -> {
+                long sum = 0;
+                for (int i = 0; i < 4096; i++) {
+                    sum += new byte[1024].length;
+                }
+                return sum;
+            });
+        }
+
+        // Then : les objets morts ne font pas réduire les chunks
+        PerformanceMetrics metrics = profiler.stop();
+        assertThat(metrics.getItemsProcessed()).isEqualTo(50_000);
+        assertThat(metrics.getChunkSizes()).containsExactly(100);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
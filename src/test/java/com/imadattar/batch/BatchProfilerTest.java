@@ -0,0 +1,310 @@
+package com.imadattar.batch;
+
+import com.imadattar.batch.parallel.ParallelBatchProcessor;
+import com.imadattar.batch.profiling.BatchProfiler;
+import com.imadattar.batch.profiling.LatencyDistribution;
+import com.imadattar.batch.profiling.PerformanceMetrics;
+import com.imadattar.batch.profiling.PhaseMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests pour BatchProfiler.
+ *
+ * @author Imad ATTAR
+ */
+class BatchProfilerTest {
+
+    /**
+     * Référence publiée : les déchets ne peuvent pas être éliminés par le JIT.
+     */
+    private static volatile byte[] garbage;
+
+    @Test
+    void shouldNotLoseUpdatesUnderContention() throws Exception {
+        // Given : 16 threads démarrés ensemble, 1M incréments chacun
+        int threads = 16;
+        int increments = 1_000_000;
+        BatchProfiler profiler = new BatchProfiler();
+        profiler.start();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            // When
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < increments; i++) {
+                        profiler.addProcessedItems(1);
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(profiler.getProcessedItems()).isEqualTo((long) threads * increments);
+        assertThat(profiler.stop().getItemsProcessed()).isEqualTo((long) threads * increments);
+    }
+
+    @Test
+    void shouldCountBeyondIntegerRange() {
+        // Given
+        BatchProfiler profiler = new BatchProfiler();
+        profiler.start();
+
+        // When : plus de 2^31 items
+        profiler.addProcessedItems(Integer.MAX_VALUE);
+        profiler.addProcessedItems(Integer.MAX_VALUE);
+        profiler.addProcessedItems(2);
+        PerformanceMetrics metrics = profiler.stop();
+
+        // Then
+        assertThat(metrics.getItemsProcessed()).isEqualTo(1L << 32);
+
+        // Un nouveau démarrage repart de zéro
+        profiler.start();
+        assertThat(profiler.getProcessedItems()).isZero();
+    }
+
+    @Test
+    void shouldDefaultCollectionsWhenBuiltWithoutData() {
+        // When : métriques construites hors profileur, sans données de chunks
+        PerformanceMetrics metrics = PerformanceMetrics.builder().itemsProcessed(10).build();
+
+        // Then
+        assertThat(metrics.getChunkSizes()).isEmpty();
+        assertThat(metrics.getPhases()).isEmpty();
+        assertThat(metrics.getWorkerCpuTimes()).isEmpty();
+        assertThat(metrics.getMemoryPoolPeaks()).isEmpty();
+    }
+
+    @Test
+    void shouldComputePercentilesWithinHistogramPrecision() {
+        // Given : durées uniformes de 1 ns à 1 ms
+        BatchProfiler profiler = new BatchProfiler();
+        profiler.start();
+
+        // When
+        for (long nanos = 1; nanos <= 1_000_000; nanos++) {
+            profiler.recordItemTime(nanos);
+        }
+        LatencyDistribution latency = profiler.stop().getItemLatency();
+
+        // Then : erreur relative d'au plus 1/64
+        assertThat(latency.getCount()).isEqualTo(1_000_000);
+        assertThat(latency.getMin().toNanos()).isEqualTo(1);
+        assertThat(latency.getMax().toNanos()).isEqualTo(1_000_000);
+        assertThat(latency.getMean().toNanos()).isEqualTo(500_000);
+        assertThat((double) latency.getP50().toNanos()).isCloseTo(500_000, within(500_000 / 64.0));
+        assertThat((double) latency.getP90().toNanos()).isCloseTo(900_000, within(900_000 / 64.0));
+        assertThat((double) latency.getP99().toNanos()).isCloseTo(990_000, within(990_000 / 64.0));
+        assertThat((double) latency.getP999().toNanos()).isCloseTo(999_000, within(999_000 / 64.0));
+    }
+
+    @Test
+    void shouldRecordItemAndChunkLatenciesFromProcessor() throws Exception {
+        // Given : 1 item sur 100 est lent
+        BatchProfiler profiler = new BatchProfiler();
+        profiler.start();
+        List<Integer> items = IntStream.range(0, 2000).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .chunkSize(100)
+                .profiler(profiler)
+                .build()) {
+
+            // When
+            processor.process(items, item -> {
+                if (item % 100 == 0) {
+                    sleep(5);
+                }
+                return item;
+            });
+        }
+        PerformanceMetrics metrics = profiler.stop();
+
+        // Then : la médiane ignore les items lents, le p99.9 les révèle
+        assertThat(metrics.getItemLatency().getCount()).isEqualTo(2000);
+        assertThat(metrics.getItemLatency().getP50().toMillis()).isLessThan(1);
+        assertThat(metrics.getItemLatency().getP999().toMillis()).isGreaterThanOrEqualTo(4);
+        assertThat(metrics.getChunkLatency().getCount()).isGreaterThanOrEqualTo(20);
+        assertThat(metrics.getChunkLatency().getMin().toMillis()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void shouldSeparateCpuTimeFromWaitingTime() throws Exception {
+        // Given
+        List<Integer> items = IntStream.range(0, 40).boxed().toList();
+
+        // When : un batch qui attend, puis un batch qui calcule
+        PerformanceMetrics waiting = profile(items, item -> {
+            sleep(5);
+            return item;
+        });
+        PerformanceMetrics computing = profile(items, item -> {
+            long deadline = System.nanoTime() + 5_000_000;
+            long x = item;
+            while (System.nanoTime() < deadline) {
+                x = x * 31 + 7;
+            }
+            return (int) x;
+        });
+
+        // Then : les workers du premier passent leur temps à attendre, ceux du second à calculer
+        assertThat(waiting.getWorkerCpuTimeNanos()).isPositive();
+        assertThat(computing.getBlockingRatio()).isGreaterThanOrEqualTo(0.9);
+        assertThat(waiting.getBlockingRatio()).isGreaterThan(5 * computing.getBlockingRatio());
+        assertThat(computing.getCpuTimePerItemNanos()).isGreaterThanOrEqualTo(2_500_000L);
+        assertThat(computing.getAverageCpuPercent()).isPositive();
+        assertThat(computing.getPeakCpuPercent()).isGreaterThanOrEqualTo(computing.getAverageCpuPercent());
+        assertThat(computing.getWorkerCpuTimes()).isNotEmpty();
+        assertThat(computing.getWorkerCpuTimes().values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo(computing.getWorkerCpuTimeNanos());
+    }
+
+    @Test
+    void shouldMeasureAllocationsAndGcPauses() throws Exception {
+        // Given : chaque item alloue 1 Ko conservé dans les résultats
+        BatchProfiler profiler = new BatchProfiler();
+        profiler.start();
+        List<Integer> items = IntStream.range(0, 2000).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .chunkSize(100)
+                .profiler(profiler)
+                .build()) {
+
+            // When
+            processor.process(items, item -> new byte[1024]);
+        }
+        // Déchets jusqu'à la première collection : System.gc() peut être ignoré
+        // (-XX:+DisableExplicitGC), la saturation du heap ne l'est jamais
+        allocateUntilCollection();
+        PerformanceMetrics metrics = profiler.stop();
+
+        // Then
+        assertThat(metrics.getWorkerAllocatedBytes()).isGreaterThanOrEqualTo(2000L * 1024);
+        assertThat(metrics.getAllocatedBytes()).isGreaterThanOrEqualTo(metrics.getWorkerAllocatedBytes());
+        assertThat(metrics.getAllocatedBytesPerItem()).isGreaterThanOrEqualTo(1024L);
+        assertThat(metrics.getAllocationRate()).isPositive();
+        assertThat(metrics.getWorkerAllocations().values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo(metrics.getWorkerAllocatedBytes());
+        assertThat(metrics.getGcCount()).isGreaterThanOrEqualTo(1L);
+        assertThat(metrics.getGcOverheadPercent()).isBetween(0.0, 100.0);
+        assertThat(metrics.getMemoryPoolPeaks()).isNotEmpty();
+        assertThat(metrics.getMemoryPoolPeaks().values().stream().mapToLong(Long::longValue).sum()).isPositive();
+    }
+
+    @Test
+    void shouldAggregateNestedPhasesAcrossThreads() throws Exception {
+        // Given
+        BatchProfiler profiler = new BatchProfiler();
+        profiler.start();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When : lecture sur le thread appelant, transformation sur 4 threads
+        try (BatchProfiler.Phase read = profiler.phase("read")) {
+            sleep(5);
+        }
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        try (BatchProfiler.Phase transform = profiler.phase("transform")) {
+                            try (BatchProfiler.Phase enrich = profiler.phase("enrich")) {
+                                sleep(1);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        PerformanceMetrics metrics = profiler.stop();
+
+        // Then
+        assertThat(metrics.getPhases()).hasSize(2);
+        PhaseMetrics read = metrics.getPhase("read");
+        assertThat(read.getCount()).isEqualTo(1);
+        assertThat(read.getTotalTime().toMillis()).isGreaterThanOrEqualTo(5);
+        assertThat(read.getChildren()).isEmpty();
+
+        PhaseMetrics transform = metrics.getPhase("transform");
+        PhaseMetrics enrich = transform.getChild("enrich");
+        assertThat(transform.getCount()).isEqualTo(40);
+        assertThat(enrich.getCount()).isEqualTo(40);
+        assertThat(enrich.getTotalTime().toMillis()).isGreaterThanOrEqualTo(40);
+        assertThat(transform.getTotalTime().toNanos()).isGreaterThanOrEqualTo(enrich.getTotalTime().toNanos());
+        assertThat(enrich.getMaxTime().toNanos()).isGreaterThanOrEqualTo(enrich.getMeanTime().toNanos());
+        assertThat(metrics.getPhaseTree()).contains("read: ", "transform: ", "  enrich: ");
+        assertThat(metrics.getTotalTimeNanos()).isGreaterThanOrEqualTo(read.getTotalTime().toNanos());
+    }
+
+    private static PerformanceMetrics profile(List<Integer> items, Function<Integer, Integer> work)
+            throws Exception {
+        BatchProfiler profiler = new BatchProfiler(Duration.ofMillis(10));
+        profiler.start();
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(1)   // Un seul worker : pas d'attente du CPU, même sur une machine à un cœur
+                .chunkSize(5)
+                .profiler(profiler)
+                .build()) {
+            processor.process(items, work);
+        }
+        return profiler.stop();
+    }
+
+    private static void allocateUntilCollection() {
+        long before = collections();
+        long budget = 2 * Runtime.getRuntime().maxMemory();
+        for (long allocated = 0; collections() == before && allocated < budget; allocated += 1 << 20) {
+            garbage = new byte[1 << 20];
+        }
+    }
+
+    private static long collections() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.imadattar.batch;
+
+import com.imadattar.batch.csv.CsvReader;
+import com.imadattar.batch.csv.CsvRecord;
+import com.imadattar.batch.csv.CsvWriter;
+import com.imadattar.batch.csv.RowFormatter;
+import com.imadattar.batch.parallel.ParallelBatchProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests pour CsvReader et CsvWriter.
+ *
+ * @author Imad ATTAR
+ */
+class CsvTest {
+
+    record Transaction(long id, String label, double amount) {
+    }
+
+    private static final RowFormatter<Transaction> FORMATTER = (tx, row) -> row
+            .field(tx.id())
+            .field(tx.label())
+            .field(tx.amount());
+
+    @Test
+    void shouldRoundTripQuotedAndUnicodeFieldsInParallel(@TempDir Path dir) throws Exception {
+        // Given : libellés avec délimiteur, guillemets et caractères non ASCII
+        List<Transaction> transactions = IntStream.range(0, 20_000)
+                .mapToObj(i -> new Transaction(i - 10_000L, label(i), i / 4.0 - 1000))
+                .toList();
+        Path file = dir.resolve("transactions.csv");
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .build()) {
+
+            // When
+            try (CsvWriter writer = CsvWriter.open(file)) {
+                writer.header("id", "label", "amount");
+                writer.writeAll(transactions, FORMATTER, processor);
+            }
+            CsvReader reader = CsvReader.builder()
+                    .processor(processor)
+                    .header(true)
+                    .build();
+            List<Transaction> read = reader.read(file,
+                    record -> new Transaction(record.getLong(0), record.getString(1), record.getDouble(2)));
+
+            // Then
+            assertThat(reader.readHeader(file)).containsExactly("id", "label", "amount");
+            assertThat(read).containsExactlyElementsOf(transactions);
+        }
+    }
+
+    @Test
+    void shouldParseFieldsWithoutCopyingBytes() {
+        // Given
+        CsvRecord record = new CsvRecord(';', '"');
+        ByteBuffer line = ByteBuffer.wrap("42;-17.25;\"a;\"\"b\"\"\";;9223372036854775807;1e3;café"
+                .getBytes(StandardCharsets.UTF_8));
+
+        // When
+        record.reset(line);
+
+        // Then
+        assertThat(record.size()).isEqualTo(7);
+        assertThat(record.getInt(0)).isEqualTo(42);
+        assertThat(record.getDouble(1)).isEqualTo(-17.25);
+        assertThat(record.getString(2)).isEqualTo("a;\"b\"");
+        assertThat(record.isEmpty(3)).isTrue();
+        assertThat(record.getLong(4)).isEqualTo(Long.MAX_VALUE);
+        assertThat(record.getDouble(5)).isEqualTo(1000.0);
+        assertThat(record.get(6).toString()).isEqualTo("café");
+        assertThat(record.get(0).toString()).isEqualTo("42");
+        assertThatThrownBy(() -> record.getInt(4)).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> record.getLong(2)).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void shouldCompareAsciiFieldsByContent() {
+        // Given : deux champs identiques, puis l'enregistrement suivant du même tampon
+        ByteBuffer lines = ByteBuffer.wrap("EUR;x;EUR\nUSD;EUR\n".getBytes(StandardCharsets.US_ASCII));
+        CsvRecord record = new CsvRecord(';', '"');
+        record.reset(lines.limit(9));
+        CharSequence first = record.get(0);
+        Map<CharSequence, Integer> counts = new HashMap<>();
+
+        // When : l'analyse déplace la position et la limite du tampon partagé
+        counts.merge(first, 1, Integer::sum);
+        counts.merge(record.get(2), 1, Integer::sum);
+        record.reset(lines.limit(17).position(10));
+
+        // Then : même clé, hachage stable, cohérent avec String
+        assertThat(counts).hasSize(1);
+        assertThat(counts.get(first)).isEqualTo(2);
+        assertThat(counts.get(record.get(1))).isEqualTo(2);
+        assertThat(first.hashCode()).isEqualTo("EUR".hashCode());
+        assertThat(record.get(0)).isNotEqualTo(first);
+    }
+
+    @Test
+    void shouldUnescapeDoubledCustomQuote(@TempDir Path dir) throws Exception {
+        // Given : guillemet simple, doublé dans les champs
+        Path file = dir.resolve("quotes.csv");
+        Files.writeString(file, "1,'l''été, ''quoted''',\"kept\"\"\"\n2,'it''s',x\n", StandardCharsets.UTF_8);
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .build()) {
+            CsvReader reader = CsvReader.builder()
+                    .processor(processor)
+                    .quote('\'')
+                    .build();
+
+            // When
+            List<List<String>> rows = reader.read(file,
+                    record -> List.of(record.getString(0), record.getString(1), record.get(1).toString(),
+                            record.getString(2)));
+
+            // Then : le guillemet double n'est plus un caractère spécial
+            assertThat(rows).containsExactly(
+                    List.of("1", "l'été, 'quoted'", "l'été, 'quoted'", "\"kept\"\"\""),
+                    List.of("2", "it's", "it's", "x"));
+        }
+    }
+
+    @Test
+    void shouldWriteSequentiallyWithSmallBuffer(@TempDir Path dir) throws Exception {
+        // Given
+        Path file = dir.resolve("small.csv");
+
+        // When : tampon plus petit qu'une ligne, une écriture par ligne
+        try (CsvWriter writer = CsvWriter.open(file, ';', 8)) {
+            writer.writeAll(List.of(new Transaction(1, "x", 0.5), new Transaction(2, null, -0.0)), FORMATTER);
+            assertThat(writer.getBytesWritten()).isGreaterThan(0);
+        }
+
+        // Then
+        assertThat(Files.readString(file)).isEqualTo("1;x;0.5\n2;;-0.0\n");
+    }
+
+    private static String label(int i) {
+        return switch (i % 4) {
+            case 0 -> "compte " + i;
+            case 1 -> "virement, \"urgent\" " + i;
+            case 2 -> "échéance €" + i;
+            default -> "";
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package com.imadattar.batch;
+
+import com.imadattar.batch.jdbc.JdbcBatchWriter;
+import com.imadattar.batch.jdbc.JdbcWriteMetrics;
+import com.imadattar.batch.jdbc.StatementBinder;
+import com.imadattar.batch.parallel.ParallelBatchProcessor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests pour JdbcBatchWriter, sur une base H2 en mémoire.
+ *
+ * @author Imad ATTAR
+ */
+class JdbcBatchWriterTest {
+
+    private static final String INSERT = "INSERT INTO transactions (id, account) VALUES (?, ?)";
+
+    private static final StatementBinder<Integer> BINDER = (ps, id) -> {
+        ps.setInt(1, id);
+        ps.setString(2, "ACC" + id % 100);
+    };
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE transactions (id INT PRIMARY KEY, account VARCHAR(20))");
+        }
+    }
+
+    @Test
+    void shouldWriteRowsInGroupedBatchesOnParallelConnections() throws Exception {
+        // Given
+        List<Integer> rows = IntStream.range(0, 10_000).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .build()) {
+
+            JdbcBatchWriter<Integer> writer = JdbcBatchWriter.<Integer>builder()
+                    .dataSource(dataSource)
+                    .sql(INSERT)
+                    .binder(BINDER)
+                    .processor(processor)
+                    .connections(4)
+                    .batchSize(500)
+                    .commitInterval(2000)
+                    .build();
+
+            // When
+            JdbcWriteMetrics metrics = writer.write(rows);
+
+            // Then : 4 voies de 2500 lignes, 5 lots et 2 commits par voie
+            assertThat(countRows()).isEqualTo(10_000);
+            assertThat(metrics.getRowsWritten()).isEqualTo(10_000);
+            assertThat(metrics.getConnections()).isEqualTo(4);
+            assertThat(metrics.getBatches()).isEqualTo(20);
+            assertThat(metrics.getCommits()).isEqualTo(8);
+            assertThat(metrics.getRowsPerSecond()).isPositive();
+        }
+    }
+
+    @Test
+    void shouldKeepCommittedRowsAndRollBackCurrentTransactionOnFailure() throws Exception {
+        // Given : la ligne 2500 viole la clé primaire
+        List<Integer> rows = IntStream.range(0, 5000).map(i -> i == 2500 ? 0 : i).boxed().toList();
+
+        JdbcBatchWriter<Integer> writer = JdbcBatchWriter.<Integer>builder()
+                .dataSource(dataSource)
+                .sql(INSERT)
+                .binder(BINDER)
+                .batchSize(100)
+                .commitInterval(1000)
+                .build();
+
+        // When / Then : les deux premiers commits sont conservés
+        assertThatThrownBy(() -> writer.write(rows)).isInstanceOf(SQLException.class);
+        assertThat(countRows()).isEqualTo(2000);
+    }
+
+    private int countRows() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM transactions")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
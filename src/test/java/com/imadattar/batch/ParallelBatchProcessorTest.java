@@ -1,14 +1,51 @@
 package com.imadattar.batch;
 
+import com.imadattar.batch.io.ByteRange;
+import com.imadattar.batch.io.MappedFileSource;
+import com.imadattar.batch.parallel.BatchResult;
+import com.imadattar.batch.parallel.CancellationToken;
+import com.imadattar.batch.parallel.Checkpoint;
+import com.imadattar.batch.parallel.ItemFailure;
 import com.imadattar.batch.parallel.ParallelBatchProcessor;
 import com.imadattar.batch.parallel.PartitionStrategy;
+import com.imadattar.batch.parallel.ResultCodec;
+import com.imadattar.batch.parallel.ResultOrder;
+import com.imadattar.batch.profiling.BatchProfiler;
+import com.imadattar.batch.profiling.PerformanceMetrics;
+import com.imadattar.batch.retry.FixedBackoff;
+import com.imadattar.batch.retry.RetryPolicy;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests pour ParallelBatchProcessor.
@@ -88,4 +125,915 @@ class ParallelBatchProcessorTest {
         System.out.println("Processed 100K items in " + duration + "ms");
         assertThat(duration).isLessThan(5000); // Should be very fast
     }
+
+    @Test
+    void shouldReturnResultsInInputOrder() throws ExecutionException, InterruptedException {
+        // Given
+        ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .chunkSize(7)
+                .build();
+        List<Integer> input = new LinkedList<>(IntStream.range(0, 1000).boxed().toList());
+
+        // When
+        List<Integer> results = processor.process(input, item -> item * 2);
+
+        // Then
+        assertThat(results).containsExactlyElementsOf(IntStream.range(0, 1000).map(i -> i * 2).boxed().toList());
+    }
+
+    @Test
+    void shouldProcessPrimitiveArraysWithoutBoxing() throws ExecutionException, InterruptedException {
+        // Given
+        ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .chunkSize(100)
+                .build();
+        long[] accountIds = new long[1000];
+        for (int i = 0; i < accountIds.length; i++) {
+            accountIds[i] = i;
+        }
+
+        // When
+        double[] amounts = processor.processLongsToDoubles(accountIds, id -> id * 1.5);
+        int[] doubled = processor.processInts(new int[]{1, 2, 3}, value -> value * 2);
+
+        // Then
+        assertThat(amounts.length).isEqualTo(1000);
+        assertThat(amounts[999]).isEqualTo(1498.5);
+        assertThat(doubled).containsExactly(2, 4, 6);
+        assertThat(processor.processDoubles(new double[0], value -> value)).isEmpty();
+    }
+
+    @Test
+    void shouldSplitSkewedInputWithForkJoin() throws ExecutionException, InterruptedException {
+        // Given : les 10 premiers items concentrent tout le coût
+        List<Integer> input = IntStream.range(0, 10_000).boxed().toList();
+
+        for (boolean lazySplitting : new boolean[]{false, true}) {
+            try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                    .parallelism(4)
+                    .chunkSize(4)
+                    .strategy(PartitionStrategy.FORK_JOIN)
+                    .lazySplitting(lazySplitting)
+                    .build()) {
+
+                // When
+                List<Integer> results = processor.process(input, item -> {
+                    if (item < 10) {
+                        sleep(5);
+                    }
+                    return item + 1;
+                });
+
+                // Then
+                assertThat(results).hasSize(10_000);
+                assertThat(results.get(0)).isEqualTo(1);
+                assertThat(results.get(9_999)).isEqualTo(10_000);
+            }
+        }
+    }
+
+    @Test
+    void shouldBoundVirtualThreadConcurrency() throws ExecutionException, InterruptedException {
+        // Given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> input = IntStream.range(0, 200).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .strategy(PartitionStrategy.VIRTUAL)
+                .maxConcurrency(20)
+                .build()) {
+
+            // When : chaque item simule un appel I/O de 10 ms
+            List<Integer> results = processor.process(input, item -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(10);
+                running.decrementAndGet();
+                return item * 2;
+            });
+
+            // Then
+            assertThat(results).hasSize(200);
+            assertThat(results.get(199)).isEqualTo(398);
+        }
+
+        assertThat(maxRunning.get()).isGreaterThan(2);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    void shouldAdaptChunkSizeToMeasuredItemCost() throws ExecutionException, InterruptedException {
+        // Given
+        BatchProfiler profiler = new BatchProfiler();
+        List<Integer> input = IntStream.range(0, 200_000).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .adaptiveChunking(true)
+                .targetChunkDuration(Duration.ofMillis(1))
+                .profiler(profiler)
+                .build()) {
+
+            // When
+            profiler.start();
+            List<Integer> results = processor.process(input, item -> item + 1);
+            PerformanceMetrics metrics = profiler.stop();
+
+            // Then : échantillonnage sur 16 items, puis chunks plus gros pour des items bon marché
+            assertThat(results).hasSize(200_000);
+            assertThat(results.get(199_999)).isEqualTo(200_000);
+            assertThat(metrics.getItemsProcessed()).isEqualTo(200_000);
+            assertThat(metrics.getChunkSizes().get(0)).isEqualTo(16);
+            assertThat(metrics.getChunkSizes().get(metrics.getChunkSizes().size() - 1)).isGreaterThan(16);
+        }
+    }
+
+    @Test
+    void shouldKeepStreamChunksNearTargetDuration() throws ExecutionException, InterruptedException {
+        // Given : items de 20 µs, cible de 2 ms, soit environ 100 items par chunk
+        BatchProfiler profiler = new BatchProfiler();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .maxInFlightChunks(8)
+                .adaptiveChunking(true)
+                .targetChunkDuration(Duration.ofMillis(2))
+                .profiler(profiler)
+                .build()) {
+
+            // When : les chunks en vol attendent dans la file du pool
+            profiler.start();
+            long count = processor.processStream(IntStream.range(0, 20_000).boxed(), item -> {
+                spin(20_000);
+                return item;
+            }, chunk -> {
+            });
+            PerformanceMetrics metrics = profiler.stop();
+
+            // Then : l'attente dans la file ne fait pas grossir les chunks (médiane : une
+            // préemption ponctuelle du worker peut gonfler une mesure isolée)
+            assertThat(count).isEqualTo(20_000L);
+            List<Integer> sizes = metrics.getChunkSizes();
+            int median = sizes.stream().sorted().toList().get(sizes.size() / 2);
+            assertThat(sizes.get(0)).isEqualTo(16);
+            assertThat(median).isBetween(25, 400);
+            assertThat(sizes.get(sizes.size() - 1)).isBetween(25, 1000);
+        }
+    }
+
+    @Test
+    void shouldStartMostExpensiveItemsFirstWithWeightedPartitioning() throws ExecutionException, InterruptedException {
+        // Given : 4 items lourds disséminés parmi 1000 items légers
+        Set<Integer> heavyItems = Set.of(10, 400, 700, 999);
+        List<Integer> startOrder = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> input = IntStream.range(0, 1000).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .strategy(PartitionStrategy.WEIGHTED)
+                .build()) {
+
+            // When
+            List<Integer> results = processor.processWeighted(input,
+                    item -> heavyItems.contains(item) ? 1000 : 1,
+                    item -> {
+                        startOrder.add(item);
+                        if (heavyItems.contains(item)) {
+                            sleep(50);
+                        }
+                        return item * 2;
+                    });
+
+            // Then
+            assertThat(results).containsExactlyElementsOf(input.stream().map(i -> i * 2).toList());
+        }
+
+        assertThat(startOrder.subList(0, 4)).containsExactlyInAnyOrderElementsOf(heavyItems);
+    }
+
+    @Test
+    void shouldProcessItemsOfSameKeySequentiallyAndInOrder() throws ExecutionException, InterruptedException {
+        // Given : compte 0 très volumineux (clé chaude), comptes 1 à 49 plus petits
+        List<int[]> entries = new ArrayList<>();
+        for (int seq = 0; seq < 2000; seq++) {
+            entries.add(new int[]{seq % 2 == 0 ? 0 : 1 + seq % 49, seq});
+        }
+        ConcurrentHashMap<Integer, AtomicInteger> active = new ConcurrentHashMap<>();
+        ConcurrentHashMap<Integer, List<Integer>> seenByAccount = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .build()) {
+
+            // When
+            List<Integer> results = processor.processByKey(entries, entry -> entry[0], entry -> {
+                AtomicInteger running = active.computeIfAbsent(entry[0], account -> new AtomicInteger());
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                seenByAccount.computeIfAbsent(entry[0], account -> new ArrayList<>()).add(entry[1]);
+                running.decrementAndGet();
+                return entry[1];
+            });
+
+            // Then
+            assertThat(results).containsExactlyElementsOf(IntStream.range(0, 2000).boxed().toList());
+        }
+
+        assertThat(overlaps.get()).isEqualTo(0);
+        assertThat(seenByAccount).hasSize(50);
+        seenByAccount.values().forEach(sequence -> assertThat(sequence).isSorted());
+    }
+
+    @Test
+    void shouldIsolateItemFailuresAndKeepPartialResults() throws ExecutionException, InterruptedException {
+        // Given
+        ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .chunkSize(50)
+                .build();
+        List<Integer> input = IntStream.range(0, 1000).boxed().toList();
+
+        // When
+        BatchResult<Integer> batch = processor.tryProcess(input, item -> {
+            if (item % 100 == 0) {
+                throw new IllegalArgumentException("Invalid item " + item);
+            }
+            return item * 2;
+        });
+
+        // Then
+        assertThat(batch.getFailureCount()).isEqualTo(10);
+        assertThat(batch.getSuccessCount()).isEqualTo(990);
+        assertThat(batch.getFailures().get(1).getIndex()).isEqualTo(100);
+        assertThat(batch.getFailures().get(1).getException()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(batch.isSuccess(100)).isFalse();
+        assertThat(batch.getResults().get(101)).isEqualTo(202);
+        assertThat(batch.getSuccessfulResults()).hasSize(990);
+    }
+
+    @Test
+    void shouldFailFastAndStopRemainingChunks() {
+        // Given
+        AtomicInteger processed = new AtomicInteger();
+        List<Integer> input = IntStream.range(0, 100_000).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .chunkSize(1000)
+                .strategy(PartitionStrategy.STATIC)
+                .build()) {
+
+            // When / Then
+            assertThatThrownBy(() -> processor.process(input, item -> {
+                if (item == 10) {
+                    throw new IllegalStateException("Poisoned item");
+                }
+                processed.incrementAndGet();
+                sleep(0);
+                return item;
+            })).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(processed.get()).isLessThan(10_000);
+    }
+
+    @Test
+    void shouldRetryFailedItemWithoutBlockingWorker() throws ExecutionException, InterruptedException {
+        // Given : un seul worker, l'élément 0 échoue deux fois
+        AtomicInteger attempts = new AtomicInteger();
+        List<Integer> completionOrder = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> input = IntStream.range(0, 10).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(1)
+                .chunkSize(100)
+                .strategy(PartitionStrategy.STATIC)
+                .retryPolicy(RetryPolicy.builder()
+                        .maxAttempts(3)
+                        .backoff(FixedBackoff.of(100))
+                        .build())
+                .build()) {
+
+            // When
+            List<Integer> results = processor.process(input, item -> {
+                if (item == 0 && attempts.incrementAndGet() < 3) {
+                    throw new UncheckedIOException(new IOException("Service unavailable"));
+                }
+                completionOrder.add(item);
+                return item * 2;
+            });
+
+            // Then : le worker a traité les autres éléments pendant l'attente
+            assertThat(results).containsExactlyElementsOf(input.stream().map(i -> i * 2).toList());
+            assertThat(attempts.get()).isEqualTo(3);
+            assertThat(completionOrder.get(completionOrder.size() - 1)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void shouldReportExhaustedAndFatalItemFailuresAfterRetries() throws ExecutionException, InterruptedException {
+        // Given
+        Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        List<Integer> input = IntStream.range(0, 20).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .chunkSize(5)
+                .retryPolicy(RetryPolicy.builder()
+                        .maxAttempts(3)
+                        .backoff(FixedBackoff.of(10))
+                        .stopOn(IllegalArgumentException.class)
+                        .build())
+                .build()) {
+
+            // When
+            BatchResult<Integer> result = processor.tryProcess(input, item -> {
+                attempts.computeIfAbsent(item, k -> new AtomicInteger()).incrementAndGet();
+                if (item == 3) {
+                    throw new UncheckedIOException(new IOException("Always down"));
+                }
+                if (item == 5) {
+                    throw new IllegalArgumentException("Invalid item");
+                }
+                return item;
+            });
+
+            // Then
+            assertThat(result.getFailures().stream().map(ItemFailure::getIndex).toList()).containsExactly(3, 5);
+            assertThat(attempts.get(3).get()).isEqualTo(3);
+            assertThat(attempts.get(5).get()).isEqualTo(1);
+            assertThat(result.getSuccessCount()).isEqualTo(18);
+        }
+    }
+
+    @Test
+    void shouldResumeChunkAfterTransientOutage() throws ExecutionException, InterruptedException {
+        // Given : le système appelé est indisponible pour les deux premiers appels de l'élément 50
+        AtomicInteger outages = new AtomicInteger(2);
+        List<Integer> input = IntStream.range(0, 1_000).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .chunkSize(100)
+                .chunkRetryPolicy(RetryPolicy.builder()
+                        .maxAttempts(3)
+                        .backoff(FixedBackoff.of(20))
+                        .build())
+                .build()) {
+
+            // When
+            List<Integer> results = processor.process(input, item -> {
+                if (item == 50 && outages.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Connection refused");
+                }
+                return item + 1;
+            });
+
+            // Then
+            assertThat(results).containsExactlyElementsOf(input.stream().map(i -> i + 1).toList());
+
+            // Au-delà de maxAttempts, l'échec remonte
+            outages.set(3);
+            assertThatThrownBy(() -> processor.process(input, item -> {
+                if (item == 50 && outages.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Connection refused");
+                }
+                return item;
+            })).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void shouldReturnPartialResultsWhenDeadlineExpires() throws ExecutionException, InterruptedException {
+        // Given : ~5s de traitement pour une échéance de 200ms
+        List<Integer> input = IntStream.range(0, 10_000).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .chunkSize(100)
+                .build()) {
+
+            // When
+            long start = System.nanoTime();
+            BatchResult<Integer> result = processor.tryProcess(input, item -> {
+                sleep(1);
+                return item * 2;
+            }, CancellationToken.withDeadline(Duration.ofMillis(200)));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            // Then
+            assertThat(elapsedMs).isLessThan(2_000);
+            assertThat(result.isComplete()).isFalse();
+            assertThat(result.getSuccessCount()).isPositive();
+            assertThat(result.getSuccessCount() + result.getUnprocessedCount()).isEqualTo(input.size());
+            assertThat(result.hasFailures()).isFalse();
+            for (int i = 0; i < input.size(); i++) {
+                if (result.isSuccess(i)) {
+                    assertThat(result.getResults().get(i)).isEqualTo(i * 2);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldReportGenuineFailuresRaisedAfterCancel() throws ExecutionException, InterruptedException {
+        // Given : l'élément 0 échoue sur un bug une fois l'annulation reçue, l'élément 1 est interrompu
+        CancellationToken token = CancellationToken.create();
+        CountDownLatch started = new CountDownLatch(2);
+        List<Integer> input = IntStream.range(0, 10).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .chunkSize(1)
+                .strategy(PartitionStrategy.STATIC)
+                .interruptOnCancel(true)
+                .build()) {
+
+            Thread canceller = new Thread(() -> {
+                await(started);
+                token.cancel();
+            });
+            canceller.start();
+
+            // When
+            BatchResult<Integer> result = processor.tryProcess(input, item -> {
+                started.countDown();
+                if (item == 0) {
+                    while (!token.isCancelled()) {
+                        Thread.onSpinWait();
+                    }
+                    throw new IllegalStateException("bug");
+                }
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted", e);
+                }
+                return item;
+            }, token);
+            canceller.join();
+
+            // Then : seul l'échec dû à l'interruption est ignoré
+            assertThat(result.getFailureCount()).isEqualTo(1);
+            assertThat(result.getFailures().get(0).getIndex()).isEqualTo(0);
+            assertThat(result.getFailures().get(0).getException().getMessage()).isEqualTo("bug");
+            assertThat(result.isProcessed(1)).isFalse();
+        }
+    }
+
+    @Test
+    void shouldTreatVeryLongDeadlinesAsNoDeadline() {
+        // When : délais proches ou au-delà de la plage de System.nanoTime
+        CancellationToken centuries = CancellationToken.withDeadline(Duration.ofDays(365L * 200));
+        CancellationToken unbounded = CancellationToken.withDeadline(Duration.ofSeconds(Long.MAX_VALUE));
+        CancellationToken decades = CancellationToken.withDeadline(Duration.ofDays(365L * 100));
+
+        // Then : pas d'échéance, et jamais « déjà expiré »
+        assertThat(centuries.hasDeadline()).isFalse();
+        assertThat(centuries.isCancelled()).isFalse();
+        assertThat(unbounded.hasDeadline()).isFalse();
+        assertThat(unbounded.isCancelled()).isFalse();
+        assertThat(decades.hasDeadline()).isTrue();
+        assertThat(decades.isCancelled()).isFalse();
+        assertThat(decades.remaining().toDays()).isGreaterThan(365L * 99);
+    }
+
+    @Test
+    void shouldInterruptInFlightItemsOnCancel() throws ExecutionException, InterruptedException {
+        // Given
+        CancellationToken token = CancellationToken.create();
+        CountDownLatch started = new CountDownLatch(4);
+        List<Integer> input = IntStream.range(0, 100).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .chunkSize(1)
+                .strategy(PartitionStrategy.STATIC)
+                .interruptOnCancel(true)
+                .build()) {
+
+            Thread canceller = new Thread(() -> {
+                await(started);
+                token.cancel();
+            });
+            canceller.start();
+
+            // When
+            long start = System.nanoTime();
+            BatchResult<Integer> result = processor.tryProcess(input, item -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted", e);
+                }
+                return item;
+            }, token);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            canceller.join();
+
+            // Then : les éléments interrompus ne sont pas des échecs
+            assertThat(elapsedMs).isLessThan(5_000);
+            assertThat(result.isComplete()).isFalse();
+            assertThat(result.getUnprocessedCount()).isEqualTo(input.size());
+            assertThat(result.hasFailures()).isFalse();
+
+            // Le pool reste utilisable, sans interruption résiduelle
+            assertThat(processor.process(List.of(1, 2, 3), item -> {
+                assertThat(Thread.currentThread().isInterrupted()).isFalse();
+                return item;
+            })).containsExactly(1, 2, 3);
+        }
+    }
+
+    @Test
+    void shouldParseMappedFileOnRecordBoundaries(@TempDir Path dir) throws Exception {
+        // Given : fins de ligne mixtes et lignes vides
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String line = "account-" + i + ";" + (i * 3);
+            expected.add(line);
+            content.append(line).append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 1000 == 0) {
+                content.append("\n");
+            }
+        }
+        Path file = dir.resolve("transactions.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        BatchProfiler profiler = new BatchProfiler();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .profiler(profiler)
+                .build();
+             MappedFileSource source = MappedFileSource.lines(file)) {
+
+            // When
+            profiler.start();
+            List<String> records = processor.processFile(source, MappedFileSource::asString);
+            PerformanceMetrics metrics = profiler.stop();
+
+            // Then : le profileur compte les enregistrements, pas les plages d'octets
+            assertThat(records).containsExactlyElementsOf(expected);
+            assertThat(metrics.getItemsProcessed()).isEqualTo(10_000);
+        }
+    }
+
+    @Test
+    void shouldSplitFixedLengthFileOnRecordBoundaries(@TempDir Path dir) throws Exception {
+        // Given : 1000 enregistrements de 8 octets, sans séparateur
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(String.format("%08d", i));
+        }
+        Path file = dir.resolve("records.dat");
+        Files.writeString(file, content, StandardCharsets.US_ASCII);
+
+        try (MappedFileSource source = MappedFileSource.fixedLength(file, 8)) {
+
+            // When
+            List<ByteRange> ranges = source.split(7);
+            List<Integer> values = new ArrayList<>();
+            for (ByteRange range : ranges) {
+                values.addAll(source.parse(range, record -> Integer.parseInt(MappedFileSource.asString(record))));
+            }
+
+            // Then
+            assertThat(ranges.size()).isGreaterThanOrEqualTo(7);
+            ranges.forEach(range -> assertThat(range.from() % 8).isEqualTo(0L));
+            assertThat(values).containsExactlyElementsOf(IntStream.range(0, 1000).boxed().toList());
+        }
+    }
+
+    @Test
+    void shouldReuseWorkerThreadsAcrossCalls() throws ExecutionException, InterruptedException {
+        // Given
+        Set<Thread> workers = ConcurrentHashMap.newKeySet();
+        List<Integer> input = List.of(1, 2, 3, 4, 5, 6, 7, 8);
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .chunkSize(1)
+                .strategy(PartitionStrategy.STATIC)
+                .build()) {
+
+            // When
+            for (int call = 0; call < 10; call++) {
+                processor.process(input, item -> {
+                    workers.add(Thread.currentThread());
+                    return item;
+                });
+            }
+        }
+
+        // Then
+        assertThat(workers.size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectCallsAfterClose() {
+        // Given
+        ParallelBatchProcessor processor = ParallelBatchProcessor.builder().build();
+        processor.close();
+
+        // When / Then
+        assertThatThrownBy(() -> processor.process(List.of(1), item -> item))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldNotShutdownInjectedExecutor() throws ExecutionException, InterruptedException {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                    .executor(executor)
+                    .chunkSize(10)
+                    .build();
+
+            // When
+            List<Integer> results = processor.process(List.of(1, 2, 3), item -> item + 1);
+            processor.close();
+
+            // Then
+            assertThat(results).containsExactly(2, 3, 4);
+            assertThat(executor.isShutdown()).isFalse();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldStreamResultsWithBoundedInFlightChunks() throws ExecutionException, InterruptedException {
+        // Given
+        int chunkSize = 100;
+        int maxInFlightChunks = 4;
+        AtomicLong pulled = new AtomicLong();
+        AtomicLong maxPending = new AtomicLong();
+        List<Integer> delivered = new ArrayList<>();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .chunkSize(chunkSize)
+                .maxInFlightChunks(maxInFlightChunks)
+                .build()) {
+
+            // When
+            long count = processor.processStream(
+                    IntStream.range(0, 100_000).boxed().peek(i -> pulled.incrementAndGet()),
+                    item -> item * 2,
+                    chunk -> {
+                        maxPending.accumulateAndGet(pulled.get() - delivered.size(), Math::max);
+                        delivered.addAll(chunk);
+                    });
+
+            // Then
+            assertThat(count).isEqualTo(100_000L);
+        }
+
+        assertThat(delivered).hasSize(100_000);
+        assertThat(delivered.get(0)).isEqualTo(0);
+        assertThat(delivered.get(99_999)).isEqualTo(199_998);
+        assertThat(maxPending.get()).isLessThanOrEqualTo((long) (maxInFlightChunks + 1) * chunkSize);
+    }
+
+    @Test
+    void shouldStopPullingFromStreamOnCancel() throws ExecutionException, InterruptedException {
+        // Given
+        CancellationToken token = CancellationToken.create();
+        List<Integer> delivered = new ArrayList<>();
+        var source = IntStream.range(0, 100_000).boxed().iterator();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(2)
+                .chunkSize(100)
+                .maxInFlightChunks(4)
+                .resultOrder(ResultOrder.ORDERED)
+                .build()) {
+
+            // When : annulation depuis le sink après le cinquième chunk
+            long count = processor.processStream(source, item -> item, chunk -> {
+                delivered.addAll(chunk);
+                if (delivered.size() == 500) {
+                    token.cancel();
+                }
+            }, token);
+
+            // Then : les chunks en cours sont livrés, la source reprend après le dernier élément tiré
+            assertThat(count).isEqualTo(delivered.size());
+            assertThat(count).isBetween(500L, 900L);
+            assertThat(delivered).containsExactlyElementsOf(IntStream.range(0, (int) count).boxed().toList());
+            assertThat(source.next()).isEqualTo((int) count);
+
+            // Un jeton expiré ne tire aucun élément
+            assertThat(processor.processStream(source, item -> item, delivered::addAll,
+                    CancellationToken.withDeadline(Duration.ZERO))).isZero();
+        }
+    }
+
+    @Test
+    void shouldDeliverCompletedChunksBeforeSlowFirstChunkWhenUnordered() throws Exception {
+        // Given
+        CountDownLatch laterChunksDelivered = new CountDownLatch(3);
+        List<List<Integer>> deliveries = new ArrayList<>();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .chunkSize(1)
+                .resultOrder(ResultOrder.UNORDERED)
+                .build()) {
+
+            // When : le premier chunk attend que les trois autres aient été livrés
+            processor.processStream(List.of(0, 1, 2, 3).iterator(), item -> {
+                if (item == 0) {
+                    await(laterChunksDelivered);
+                }
+                return item;
+            }, chunk -> {
+                deliveries.add(chunk);
+                laterChunksDelivered.countDown();
+            });
+        }
+
+        // Then
+        assertThat(deliveries).hasSize(4);
+        assertThat(deliveries.get(3)).containsExactly(0);
+    }
+
+    @Test
+    void shouldPreserveSourceOrderWhenOrdered() throws ExecutionException, InterruptedException {
+        // Given
+        List<Integer> delivered = new ArrayList<>();
+        List<Integer> input = IntStream.range(0, 1000).boxed().toList();
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(4)
+                .chunkSize(10)
+                .maxInFlightChunks(3)
+                .resultOrder(ResultOrder.ORDERED)
+                .build()) {
+
+            // When : les chunks pairs sont plus lents que les chunks impairs
+            processor.processStream(input.iterator(), item -> {
+                if ((item / 10) % 2 == 0) {
+                    sleep(1);
+                }
+                return item;
+            }, delivered::addAll);
+        }
+
+        // Then
+        assertThat(delivered).containsExactlyElementsOf(input);
+    }
+
+    @Test
+    void shouldResumeFromCheckpointAfterFailure(@TempDir Path dir) throws Exception {
+        // Given : un premier traitement échoue sur l'élément 7000
+        List<Integer> input = IntStream.range(0, 10_000).boxed().toList();
+        Path file = dir.resolve("batch.ckpt");
+        ResultCodec<Integer> codec = ResultCodec.of(DataOutput::writeInt, DataInput::readInt);
+
+        try (ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                .parallelism(1)
+                .strategy(PartitionStrategy.STATIC)
+                .chunkSize(100)
+                .build()) {
+
+            assertThatThrownBy(() -> processor.process(input, item -> {
+                if (item == 7000) {
+                    throw new IllegalStateException("Database unavailable");
+                }
+                return item * 2;
+            }, Checkpoint.at(file, codec))).isInstanceOf(ExecutionException.class);
+            // Arrêt brutal simulé : enregistrement tronqué en fin de journal
+            Files.write(file, new byte[]{0, 0, 27, 88, 0}, StandardOpenOption.APPEND);
+
+            // When
+            AtomicInteger calls = new AtomicInteger();
+            Checkpoint<Integer> checkpoint = Checkpoint.at(file, codec);
+            List<Integer> results = processor.process(input, item -> {
+                calls.incrementAndGet();
+                return item * 2;
+            }, checkpoint);
+
+            // Then : seuls les éléments non terminés sont retraités, les autres résultats sont restitués
+            assertThat(calls.get()).isEqualTo(3000);
+            assertThat(checkpoint.getRestoredItems()).isEqualTo(7000);
+            assertThat(results).containsExactlyElementsOf(input.stream().map(i -> i * 2).toList());
+            assertThat(Files.exists(file)).isFalse();
+        }
+    }
+
+    @Test
+    void shouldEmitJfrEventsForChunksAndSlowItemsOnly(@TempDir Path dir) throws Exception {
+        // Given : un enregistrement JFR, 10 chunks de 100 éléments dont 2 lents
+        List<Integer> input = IntStream.range(0, 1000).boxed().toList();
+        Path file = dir.resolve("batch.jfr");
+
+        try (Recording recording = new Recording();
+             ParallelBatchProcessor processor = ParallelBatchProcessor.builder()
+                     .parallelism(4)
+                     .chunkSize(100)
+                     .strategy(PartitionStrategy.STATIC)
+                     .build()) {
+            recording.enable("com.imadattar.batch.BatchStarted");
+            recording.enable("com.imadattar.batch.ChunkExecuted");
+            recording.enable("com.imadattar.batch.SlowItem").withThreshold(Duration.ofMillis(20));
+            recording.start();
+
+            // When
+            processor.process(input, item -> {
+                if (item == 150 || item == 820) {
+                    sleep(30);
+                }
+                return item;
+            });
+
+            // Par clé : une voie par compte, décrite par l'index de son premier élément
+            processor.processByKey(IntStream.range(0, 99).boxed().toList(), item -> item % 3, item -> item);
+
+            // En VIRTUAL, un élément par tâche : pas d'événement de chunk
+            try (ParallelBatchProcessor virtual = ParallelBatchProcessor.builder()
+                    .strategy(PartitionStrategy.VIRTUAL)
+                    .build()) {
+                virtual.process(IntStream.range(0, 200).boxed().toList(), item -> {
+                    if (item == 7) {
+                        sleep(30);
+                    }
+                    return item;
+                });
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> batches = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.imadattar.batch.BatchStarted")).toList();
+        long byKeyBatch = batches.get(1).getLong("batchId");
+        List<RecordedEvent> chunks = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.imadattar.batch.ChunkExecuted")
+                        && event.getLong("batchId") != byKeyBatch).toList();
+        List<RecordedEvent> lanes = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.imadattar.batch.ChunkExecuted")
+                        && event.getLong("batchId") == byKeyBatch).toList();
+        List<RecordedEvent> slowItems = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.imadattar.batch.SlowItem")).toList();
+
+        assertThat(batches).hasSize(3);
+        assertThat(batches.get(0).getLong("items")).isEqualTo(1000L);
+        assertThat(batches.get(2).getString("strategy")).isEqualTo("VIRTUAL");
+        assertThat(lanes.stream().mapToLong(event -> event.getLong("firstItem")).sorted().toArray())
+                .containsExactly(0L, 1L, 2L);
+        assertThat(lanes.stream().mapToInt(event -> event.getInt("size")).toArray()).containsExactly(33, 33, 33);
+        assertThat(batches.get(0).getString("strategy")).isEqualTo("STATIC");
+        assertThat(chunks).hasSize(10);
+        assertThat(chunks.stream().mapToLong(event -> event.getInt("size")).sum()).isEqualTo(1000L);
+        assertThat(chunks.stream().allMatch(event -> event.getLong("batchId") == batches.get(0).getLong("batchId")
+                && event.getThread().getJavaName().startsWith("batch-worker-"))).isTrue();
+        assertThat(slowItems).hasSize(3);
+        assertThat(slowItems.get(0).getDuration().toMillis()).isGreaterThanOrEqualTo(20L);
+        assertThat(slowItems.get(0).getString("itemType")).isEqualTo(Integer.class.getName());
+        assertThat(slowItems.stream()
+                .filter(event -> event.getLong("batchId") == batches.get(0).getLong("batchId"))
+                .mapToLong(event -> event.getLong("itemIndex")).sorted().toArray()).containsExactly(150L, 820L);
+        RecordedEvent virtualItem = slowItems.stream()
+                .filter(event -> event.getLong("batchId") == batches.get(2).getLong("batchId")).findFirst().orElseThrow();
+        assertThat(virtualItem.getLong("itemIndex")).isEqualTo(7L);
+        assertThat(virtualItem.getString("strategy")).isEqualTo("VIRTUAL");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package com.imadattar.batch;
+
+import com.imadattar.batch.pipeline.Pipeline;
+import com.imadattar.batch.pipeline.PipelineMetrics;
+import com.imadattar.batch.pipeline.StageMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests pour Pipeline.
+ *
+ * @author Imad ATTAR
+ */
+class PipelineTest {
+
+    @Test
+    void shouldRunAllStagesOnEveryItem() throws ExecutionException, InterruptedException {
+        // Given
+        List<String> output = new ArrayList<>();
+
+        try (Pipeline<Integer, String> pipeline = Pipeline.<Integer>builder()
+                .chunkSize(100)
+                .stage("double", 4, item -> item * 2)
+                .stage("format", 2, item -> "#" + item)
+                .build()) {
+
+            // When
+            PipelineMetrics metrics = pipeline.run(IntStream.range(0, 10_000).boxed(), output::addAll);
+
+            // Then
+            assertThat(metrics.getItemsProcessed()).isEqualTo(10_000);
+            assertThat(output).hasSize(10_000);
+            assertThat(output).containsExactlyInAnyOrderElementsOf(
+                    IntStream.range(0, 10_000).mapToObj(i -> "#" + (i * 2)).toList());
+            assertThat(metrics.getStages()).hasSize(2);
+            assertThat(metrics.getStages().get(0).getItemsProcessed()).isEqualTo(10_000);
+        }
+    }
+
+    @Test
+    void shouldBoundItemsInFlightWhenLastStageIsSlow() throws ExecutionException, InterruptedException {
+        // Given : source rapide, dernière étape lente
+        AtomicInteger produced = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        int[] delivered = {0};
+        Iterator<Integer> source = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return produced.get() < 2_000;
+            }
+
+            @Override
+            public Integer next() {
+                return produced.getAndIncrement();
+            }
+        };
+
+        try (Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .chunkSize(10)
+                .queueCapacity(2)
+                .stage("parse", 2, item -> item)
+                .stage("write", 1, item -> {
+                    sleep(1);
+                    return item;
+                })
+                .build()) {
+
+            // When
+            pipeline.run(source, chunk -> {
+                delivered[0] += chunk.size();
+                maxInFlight.accumulateAndGet(produced.get() - delivered[0], Math::max);
+            });
+        }
+
+        // Then : 3 files de 2 chunks, plus les chunks en cours de traitement
+        assertThat(delivered[0]).isEqualTo(2_000);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(3 * 2 * 10 + 5 * 10);
+    }
+
+    @Test
+    void shouldReportSlowestStageAsBottleneck() throws ExecutionException, InterruptedException {
+        try (Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .chunkSize(10)
+                .stage("transform", 2, item -> item + 1)
+                .stage("enrich", 2, item -> {
+                    sleep(1);
+                    return item;
+                })
+                .stage("write", 2, item -> item)
+                .build()) {
+
+            // When
+            PipelineMetrics metrics = pipeline.run(IntStream.range(0, 500).boxed(), chunk -> { });
+
+            // Then
+            StageMetrics bottleneck = metrics.getBottleneck();
+            assertThat(bottleneck.getName()).isEqualTo("enrich");
+            assertThat(bottleneck.getUtilization()).isGreaterThan(metrics.getStages().get(0).getUtilization());
+        }
+    }
+
+    @Test
+    void shouldStopPipelineOnStageFailure() {
+        try (Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder()
+                .chunkSize(10)
+                .queueCapacity(1)
+                .stage("validate", 2, item -> {
+                    if (item == 5_000) {
+                        throw new IllegalArgumentException("Invalid item");
+                    }
+                    return item;
+                })
+                .build()) {
+
+            // When / Then
+            assertThatThrownBy(() -> pipeline.run(IntStream.range(0, 1_000_000).boxed(), chunk -> sleep(1)))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.imadattar.batch.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Point d'entrée des benchmarks JMH.
+ *
+ * <p>Sans argument, exécute tous les benchmarks du package. Un argument permet de
+ * filtrer par expression régulière (ex : {@code ExecutorReuse}). Le profiler GC est toujours
+ * actif : la métrique {@code gc.alloc.rate.norm} donne les octets alloués par opération.</p>
+ *
+ * <pre>{@code
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass="com.imadattar.batch.benchmark.BenchmarkRunner" \
+ *     -Dexec.args="ExecutorReuse"
+ * }</pre>
+ *
+ * @author Imad ATTAR
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,105 @@
+package com.imadattar.batch.benchmark;
+
+import com.imadattar.batch.io.MappedFileSource;
+import com.imadattar.batch.parallel.ParallelBatchProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare la lecture d'un fichier CSV de 1M lignes via {@link BufferedReader} (liste de
+ * lignes puis {@code process()}) à son analyse par projection mémoire
+ * ({@code processFile()}), le parser lisant directement les octets.
+ *
+ * <p>Le temps est exprimé par ligne ; {@code gc.alloc.rate.norm} montre le coût des
+ * chaînes intermédiaires évitées par la projection.</p>
+ *
+ * @author Imad ATTAR
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OperationsPerInvocation(MappedFileBenchmark.LINES)
+public class MappedFileBenchmark {
+
+    static final int LINES = 1_000_000;
+
+    private Path file;
+    private MappedFileSource source;
+    private ParallelBatchProcessor processor;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("transactions", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < LINES; i++) {
+                writer.write("ACC" + (1_000_000 + i % 50_000) + ";" + (i % 100_000) + ";transfer\n");
+            }
+        }
+        source = MappedFileSource.lines(file);
+        processor = ParallelBatchProcessor.builder()
+                .parallelism(8)
+                .chunkSize(10_000)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        processor.close();
+        source.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Long> bufferedReader() throws IOException, ExecutionException, InterruptedException {
+        List<String> lines = new ArrayList<>(LINES);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return processor.process(lines, MappedFileBenchmark::amountOf);
+    }
+
+    @Benchmark
+    public List<Long> mappedFile() throws ExecutionException, InterruptedException {
+        return processor.processFile(source, MappedFileBenchmark::amountOf);
+    }
+
+    /**
+     * Montant : second champ de la ligne.
+     */
+    private static long amountOf(String line) {
+        int start = line.indexOf(';') + 1;
+        return Long.parseLong(line, start, line.indexOf(';', start), 10);
+    }
+
+    /**
+     * Même analyse, directement sur les octets de l'enregistrement.
+     */
+    private static long amountOf(ByteBuffer record) {
+        int i = record.position();
+        while (record.get(i) != ';') {
+            i++;
+        }
+        long amount = 0;
+        for (i++; record.get(i) != ';'; i++) {
+            amount = amount * 10 + (record.get(i) - '0');
+        }
+        return amount;
+    }
+}
@@ -0,0 +1,47 @@
+package com.imadattar.batch.benchmark;
+
+import com.imadattar.batch.profiling.BatchProfiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure le coût d'une phase {@link BatchProfiler#phase(String)} vide, seule ou imbriquée,
+ * appelée simultanément par plusieurs threads : c'est le surcoût ajouté à chaque étape
+ * chronométrée d'un batch.
+ *
+ * @author Imad ATTAR
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PhaseTimerBenchmark {
+
+    private BatchProfiler profiler;
+
+    @Setup
+    public void setUp() {
+        profiler = new BatchProfiler();
+        profiler.start();
+    }
+
+    @Benchmark
+    public void phase() {
+        try (BatchProfiler.Phase phase = profiler.phase("transform")) {
+            // Phase vide : seul le chronométrage est mesuré
+        }
+    }
+
+    @Benchmark
+    public void nestedPhase() {
+        try (BatchProfiler.Phase transform = profiler.phase("transform")) {
+            try (BatchProfiler.Phase enrich = profiler.phase("enrich")) {
+                // Phase vide : seul le chronométrage est mesuré
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.imadattar.batch.benchmark;
+
+import com.imadattar.batch.parallel.ParallelBatchProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le chemin boxé ({@code process(List<Long>, Function<Long, Double>)}) au chemin
+ * primitif ({@code processLongsToDoubles(long[], LongToDoubleFunction)}) sur la conversion
+ * identifiant de compte → montant.
+ *
+ * <p>Le temps et {@code gc.alloc.rate.norm} sont exprimés par item : le chemin primitif ne
+ * doit allouer que le tableau de sortie (8 octets/item).</p>
+ *
+ * @author Imad ATTAR
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OperationsPerInvocation(PrimitiveProcessingBenchmark.ITEMS)
+public class PrimitiveProcessingBenchmark {
+
+    static final int ITEMS = 1_000_000;
+
+    private long[] accountIds;
+    private List<Long> boxedAccountIds;
+    private ParallelBatchProcessor processor;
+
+    @Setup
+    public void setUp() {
+        accountIds = new long[ITEMS];
+        boxedAccountIds = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            accountIds[i] = 1_000_000_000L + i;
+            boxedAccountIds.add(accountIds[i]);
+        }
+        processor = ParallelBatchProcessor.builder()
+                .parallelism(8)
+                .chunkSize(10_000)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        processor.close();
+    }
+
+    @Benchmark
+    public List<Double> boxed() throws ExecutionException, InterruptedException {
+        return processor.process(boxedAccountIds, PrimitiveProcessingBenchmark::amountOf);
+    }
+
+    @Benchmark
+    public double[] primitive() throws ExecutionException, InterruptedException {
+        return processor.processLongsToDoubles(accountIds, PrimitiveProcessingBenchmark::amountOf);
+    }
+
+    private static double amountOf(long accountId) {
+        return (accountId % 10_000) * 0.01;
+    }
+}
@@ -0,0 +1,48 @@
+package com.imadattar.batch.benchmark;
+
+import com.imadattar.batch.profiling.BatchProfiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mesure le coût d'un incrément de compteur partagé par tous les threads, comme les
+ * appels à {@link BatchProfiler#addProcessedItems(long)} depuis les workers.
+ *
+ * <p>{@code atomicLong} : une seule variable, dont la ligne de cache passe d'un cœur à
+ * l'autre à chaque incrément ; {@code profiler} : cellules réparties ({@code LongAdder}),
+ * qui restent locales à chaque cœur. L'écart croît avec le nombre de threads
+ * ({@code -t 1}, {@code -t 4}, {@code -t 16}...).</p>
+ *
+ * @author Imad ATTAR
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProfilerContentionBenchmark {
+
+    private BatchProfiler profiler;
+    private AtomicLong atomicLong;
+
+    @Setup
+    public void setUp() {
+        profiler = new BatchProfiler();
+        profiler.start();
+        atomicLong = new AtomicLong();
+    }
+
+    @Benchmark
+    public void profiler() {
+        profiler.addProcessedItems(1);
+    }
+
+    @Benchmark
+    public long atomicLong() {
+        return atomicLong.incrementAndGet();
+    }
+}
@@ -0,0 +1,85 @@
+package com.imadattar.batch.benchmark;
+
+import com.imadattar.batch.parallel.ParallelBatchProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mesure l'allocation par item de l'assemblage des résultats.
+ *
+ * <p>{@code legacyCollectAndAddAll} reproduit l'ancien chemin (sous-listes,
+ * {@code stream().map().collect()} par chunk, puis {@code addAll} dans une liste qui grandit) ;
+ * {@code presizedSlots} utilise {@link ParallelBatchProcessor#process}, qui écrit directement
+ * dans un tableau pré-dimensionné. La fonction de traitement renvoie l'item lui-même pour
+ * n'isoler que le coût des conteneurs.</p>
+ *
+ * <p>Avec le profiler GC activé par {@link BenchmarkRunner}, comparer la métrique
+ * {@code gc.alloc.rate.norm} (octets par item, grâce à {@code @OperationsPerInvocation}).</p>
+ *
+ * @author Imad ATTAR
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OperationsPerInvocation(ResultAssemblyBenchmark.ITEMS)
+public class ResultAssemblyBenchmark {
+
+    static final int ITEMS = 1_000_000;
+    private static final int PARALLELISM = 8;
+    private static final int CHUNK_SIZE = 1000;
+
+    private List<Integer> items;
+    private ParallelBatchProcessor processor;
+    private ExecutorService legacyExecutor;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(i);
+        }
+        processor = ParallelBatchProcessor.builder()
+                .parallelism(PARALLELISM)
+                .chunkSize(CHUNK_SIZE)
+                .build();
+        legacyExecutor = Executors.newWorkStealingPool(PARALLELISM);
+    }
+
+    @TearDown
+    public void tearDown() {
+        processor.close();
+        legacyExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Integer> presizedSlots() throws ExecutionException, InterruptedException {
+        return processor.process(items, item -> item);
+    }
+
+    @Benchmark
+    public List<Integer> legacyCollectAndAddAll() throws ExecutionException, InterruptedException {
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += CHUNK_SIZE) {
+            List<Integer> chunk = items.subList(i, Math.min(i + CHUNK_SIZE, items.size()));
+            futures.add(legacyExecutor.submit(() -> chunk.stream()
+                    .map(item -> item)
+                    .collect(Collectors.toList())));
+        }
+        List<Integer> results = new ArrayList<>();
+        for (Future<List<Integer>> future : futures) {
+            results.addAll(future.get());
+        }
+        return results;
+    }
+}
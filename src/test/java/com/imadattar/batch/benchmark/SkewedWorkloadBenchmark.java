@@ -0,0 +1,75 @@
+package com.imadattar.batch.benchmark;
+
+import com.imadattar.batch.parallel.ParallelBatchProcessor;
+import com.imadattar.batch.parallel.PartitionStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps total (makespan) sur une entrée asymétrique : 1% des items, regroupés au début
+ * de la liste, coûtent 1000 fois plus que les autres.
+ *
+ * <p>Avec des chunks fixes de 1000 items, ces items tombent dans quelques chunks qui forment
+ * la queue de l'exécution, et des chunks de 16 items multiplient les soumissions. En
+ * FORK_JOIN, {@code chunkSize} n'est qu'un seuil de découpage : un petit seuil redistribue
+ * la zone coûteuse sans créer de tâches là où ce n'est pas utile.</p>
+ *
+ * @author Imad ATTAR
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SkewedWorkloadBenchmark {
+
+    private static final int ITEMS = 100_000;
+    private static final int EXPENSIVE_ITEMS = ITEMS / 100;
+
+    @Param({"STATIC", "DYNAMIC", "FORK_JOIN"})
+    private PartitionStrategy strategy;
+
+    @Param({"16", "1000"})
+    private int chunkSize;
+
+    @Param({"false", "true"})
+    private boolean lazySplitting;
+
+    private List<Integer> items;
+    private ParallelBatchProcessor processor;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(i);
+        }
+        processor = ParallelBatchProcessor.builder()
+                .parallelism(8)
+                .chunkSize(chunkSize)
+                .strategy(strategy)
+                .lazySplitting(lazySplitting)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        processor.close();
+    }
+
+    @Benchmark
+    public List<Integer> skewed() throws ExecutionException, InterruptedException {
+        return processor.process(items, SkewedWorkloadBenchmark::processItem);
+    }
+
+    private static Integer processItem(Integer item) {
+        Blackhole.consumeCPU(item < EXPENSIVE_ITEMS ? 10_000 : 10);
+        return item;
+    }
+}
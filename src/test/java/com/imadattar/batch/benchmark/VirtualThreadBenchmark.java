@@ -0,0 +1,73 @@
+package com.imadattar.batch.benchmark;
+
+import com.imadattar.batch.parallel.ParallelBatchProcessor;
+import com.imadattar.batch.parallel.PartitionStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit sur un traitement I/O-bound simulé : chaque item attend {@code latencyMs}
+ * (appel base de données ou HTTP) sans consommer de CPU.
+ *
+ * <p>Un pool de plateforme dimensionné sur les cœurs plafonne à {@code parallelism} appels
+ * simultanés ; en VIRTUAL, la limite est {@code maxConcurrency}.</p>
+ *
+ * @author Imad ATTAR
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OperationsPerInvocation(VirtualThreadBenchmark.ITEMS)
+public class VirtualThreadBenchmark {
+
+    static final int ITEMS = 2000;
+
+    @Param({"DYNAMIC", "VIRTUAL"})
+    private PartitionStrategy strategy;
+
+    @Param({"5"})
+    private long latencyMs;
+
+    private List<Integer> items;
+    private ParallelBatchProcessor processor;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(i);
+        }
+        processor = ParallelBatchProcessor.builder()
+                .parallelism(Runtime.getRuntime().availableProcessors())
+                .chunkSize(10)
+                .strategy(strategy)
+                .maxConcurrency(500)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        processor.close();
+    }
+
+    @Benchmark
+    public List<Integer> simulatedIo() throws ExecutionException, InterruptedException {
+        return processor.process(items, this::callRemoteService);
+    }
+
+    private Integer callRemoteService(Integer item) {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return item;
+    }
+}